@@ -0,0 +1,80 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+/**
+ * The BenchmarkData class generates the files and words used by the benchmarks.
+ */
+public final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates a random word of lower-case letters.
+     *
+     * @param random the random generator
+     * @param length the length of the word
+     * @return the word
+     */
+    public static String randomWord(SplittableRandom random, int length) {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Writes a dictionary file in the words.txt format, with the words spread evenly between the difficulties.
+     *
+     * @param file the destination file
+     * @param size the total number of words
+     * @param wordLength the length of every word
+     * @param seed the seed of the random words
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeDictionary(File file, int size, int wordLength, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Difficulty[] difficulties = Difficulty.values();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            for (int d = 0; d < difficulties.length; d++) {
+                writer.write(difficulties[d].toString());
+                int count = size / difficulties.length + (d < size % difficulties.length ? 1 : 0);
+                for (int i = 0; i < count; i++) {
+                    writer.write('|');
+                    writer.write(randomWord(random, wordLength));
+                }
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Creates a temporary directory deleted when the JVM exits.
+     *
+     * @return the directory
+     * @throws IOException if an I/O error occurs
+     */
+    public static File temporaryDirectory() throws IOException {
+        File directory = Files.createTempDirectory("hangman-bench").toFile();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(directory)));
+        return directory;
+    }
+
+    /**
+     * Deletes a file or a directory with its content.
+     *
+     * @param file the file to delete
+     */
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
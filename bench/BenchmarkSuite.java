@@ -0,0 +1,56 @@
+/**
+ * The BenchmarkSuite class runs every benchmark of the hot paths of the game, for each dictionary size and word length.
+ * <p>
+ * Usage: java BenchmarkSuite [--sizes 1000,1000000,10000000] [--lengths 6,12] [--iterations 5] [--millis 1000]
+ * <p>
+ * The largest dictionaries need a large heap, for example -Xmx8g for 10 million words.
+ */
+public final class BenchmarkSuite {
+    private BenchmarkSuite() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the options
+     * @throws Exception if a benchmark cannot be set up
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1_000, 100_000, 1_000_000};
+        int[] lengths = {6, 12};
+        int iterations = 5;
+        long millis = 1000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes" -> sizes = parseList(args[i + 1]);
+                case "--lengths" -> lengths = parseList(args[i + 1]);
+                case "--iterations" -> iterations = Integer.parseInt(args[i + 1]);
+                case "--millis" -> millis = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        MicroBenchmark harness = new MicroBenchmark(iterations, iterations, millis);
+        for (int length : lengths) {
+            WordBenchmark.run(harness, length);
+            SaveBenchmark.run(harness, length);
+            for (int size : sizes) {
+                DictionaryBenchmark.run(harness, size, length);
+            }
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of integers.
+     *
+     * @param value the list
+     * @return the integers
+     */
+    static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] numbers = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            numbers[i] = Integer.parseInt(parts[i].trim());
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,46 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The DictionaryBenchmark class measures loading a dictionary file and the lookups of the Dictionary.
+ */
+public final class DictionaryBenchmark {
+    private DictionaryBenchmark() {
+    }
+
+    /**
+     * Runs the dictionary benchmarks.
+     *
+     * @param harness the benchmark harness
+     * @param size the number of words of the dictionary
+     * @param wordLength the length of every word
+     * @throws IOException if the dictionary file cannot be written
+     */
+    public static void run(MicroBenchmark harness, int size, int wordLength) throws IOException {
+        String parameters = "size=" + size + " length=" + wordLength;
+        File directory = BenchmarkData.temporaryDirectory();
+        File textFile = new File(directory, "words.txt");
+        BenchmarkData.writeDictionary(textFile, size, wordLength, 42);
+        File binaryFile = new File(directory, "words.bin");
+        Dictionary dictionary = new Dictionary(textFile);
+        BinaryDictionary.write(dictionary, binaryFile);
+
+        harness.run("Dictionary.loadWords(text)", parameters, () -> new Dictionary(textFile));
+        harness.run("Dictionary.loadWords(binary)", parameters, () -> new Dictionary(binaryFile));
+        harness.run("Dictionary.pickRandomWord", parameters, () -> dictionary.pickRandomWord(Difficulty.Medium));
+        Dictionary binaryDictionary = new Dictionary(binaryFile);
+        harness.run("Dictionary.pickRandomWord(binary)", parameters, () -> binaryDictionary.pickRandomWord(Difficulty.Medium));
+        WordPicker seededPicker = new WordPicker(dictionary, false, 42);
+        harness.run("WordPicker.pick(seeded)", parameters, () -> seededPicker.pick(Difficulty.Medium));
+        WordPicker noRepeatPicker = new WordPicker(dictionary, true);
+        harness.run("WordPicker.pick(no repeat)", parameters, () -> noRepeatPicker.pick(Difficulty.Medium));
+        WordSampler sampler = new WordSampler(dictionary, new WordStatistics(null));
+        harness.run("WordSampler.sample", parameters, () -> sampler.sample(0.7, ThreadLocalRandom.current()));
+        harness.run("Dictionary.getWordsByDifficulty", parameters, () -> {
+            List<DictionaryWord> words = dictionary.getWordsByDifficulty(Difficulty.Hard);
+            return words.get(words.size() - 1);
+        });
+    }
+}
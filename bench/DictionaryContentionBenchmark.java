@@ -0,0 +1,168 @@
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The DictionaryContentionBenchmark class measures how the reads of a shared dictionary scale with the number of
+ * reading threads while an admin thread keeps adding and removing words, pausing briefly between edits.
+ * Each reader picks random words of random difficulties, as game sessions do. The readers run once on the
+ * lock-free snapshots of the dictionary, and once with every read and edit taking a shared lock,
+ * the simplest way to make the dictionary safe, to compare the two.
+ * <p>
+ * Usage: java DictionaryContentionBenchmark [--threads 1,2,4,8] [--words 300000] [--millis 2000]
+ */
+public final class DictionaryContentionBenchmark {
+    /**
+     * The pause of the editing thread between two edits, an admin editing words much less often than games read them.
+     */
+    private static final long EDIT_PAUSE_NANOS = 100_000;
+
+    private static volatile int sink;
+
+    private DictionaryContentionBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the options
+     * @throws Exception if the dictionary cannot be generated or a thread is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        int[] threadCounts = {1, 2, 4, 8};
+        int wordCount = 300_000;
+        long millis = 2000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads" -> threadCounts = BenchmarkSuite.parseList(args[i + 1]);
+                case "--words" -> wordCount = Integer.parseInt(args[i + 1]);
+                case "--millis" -> millis = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        File file = new File(BenchmarkData.temporaryDirectory(), "words.txt");
+        BenchmarkData.writeDictionary(file, wordCount, 10, 42);
+        Dictionary dictionary = new Dictionary(file);
+        System.out.printf(Locale.ROOT, "%d words, %d available processors%n", wordCount, Runtime.getRuntime().availableProcessors());
+
+        for (boolean locked : new boolean[]{false, true}) {
+            // the first run warms up the compiler
+            measure(dictionary, locked, threadCounts[0], millis / 2);
+            for (int threads : threadCounts) {
+                long[] counts = measure(dictionary, locked, threads, millis);
+                double seconds = millis / 1000.0;
+                System.out.printf(Locale.ROOT, "%-9s %2d readers: %12.0f reads/s (%10.0f per reader), %8.0f edits/s%n",
+                        locked ? "locked" : "snapshots", threads, counts[0] / seconds, counts[0] / seconds / threads,
+                        counts[1] / seconds);
+            }
+        }
+    }
+
+    /**
+     * Runs the readers and the editing thread for a while.
+     *
+     * @param dictionary the shared dictionary
+     * @param locked true to take a shared lock around every read and edit
+     * @param threads the number of reading threads
+     * @param millis the duration of the run
+     * @return the number of reads and the number of edits
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private static long[] measure(Dictionary dictionary, boolean locked, int threads, long millis) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] reads = new long[threads];
+        long[] edits = new long[1];
+        Thread[] readers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int reader = t;
+            readers[t] = new Thread(() -> {
+                awaitQuietly(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Difficulty[] difficulties = Difficulty.values();
+                long count = 0;
+                int hash = 0;
+                while (running.get()) {
+                    for (int i = 0; i < 256; i++) {
+                        Difficulty difficulty = difficulties[random.nextInt(difficulties.length)];
+                        DictionaryWord word;
+                        if (locked) {
+                            synchronized (dictionary) {
+                                word = pick(dictionary.getWordsByDifficulty(difficulty), random);
+                            }
+                        } else {
+                            word = pick(dictionary.getWordsByDifficulty(difficulty), random);
+                        }
+                        hash += word.getRawValue().length();
+                    }
+                    count += 256;
+                }
+                reads[reader] = count;
+                sink = hash;
+            });
+            readers[t].start();
+        }
+        Thread editor = new Thread(() -> {
+            awaitQuietly(start);
+            long count = 0;
+            while (running.get()) {
+                DictionaryWord word = new DictionaryWord("benchmark" + count, Difficulty.Medium);
+                if (locked) {
+                    synchronized (dictionary) {
+                        dictionary.addWord(word);
+                    }
+                    synchronized (dictionary) {
+                        dictionary.removeWord(word);
+                    }
+                } else {
+                    dictionary.addWord(word);
+                    dictionary.removeWord(word);
+                }
+                count += 2;
+                LockSupport.parkNanos(EDIT_PAUSE_NANOS);
+            }
+            edits[0] = count;
+        });
+        editor.start();
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        editor.join();
+        long total = 0;
+        for (long count : reads) {
+            total += count;
+        }
+        return new long[]{total, edits[0]};
+    }
+
+    /**
+     * Picks a random word of a list.
+     *
+     * @param words the words
+     * @param random the random generator of the calling thread
+     * @return the picked word
+     */
+    private static DictionaryWord pick(List<DictionaryWord> words, ThreadLocalRandom random) {
+        return words.get(random.nextInt(words.size()));
+    }
+
+    /**
+     * Waits for a latch, ignoring interruptions.
+     *
+     * @param latch the latch
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
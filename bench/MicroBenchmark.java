@@ -0,0 +1,108 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * The MicroBenchmark class is a small benchmark harness: it warms an operation up, then measures its throughput
+ * and the number of bytes it allocates, like the JMH throughput mode with the GC profiler.
+ * The allocation is read from the per-thread allocation counter of the JVM.
+ */
+public final class MicroBenchmark {
+    /**
+     * Receives the results of the operations, so the JIT compiler cannot remove them.
+     */
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    /**
+     * An operation to benchmark. The returned value is consumed by the harness.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    /**
+     * Constructs a MicroBenchmark.
+     *
+     * @param warmupIterations the number of iterations run before measuring
+     * @param measurementIterations the number of measured iterations
+     * @param iterationMillis the duration of each iteration
+     */
+    public MicroBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Benchmarks an operation and prints one result line.
+     *
+     * @param name the name of the benchmark
+     * @param parameters the parameters of the benchmark, printed with the name
+     * @param operation the operation to benchmark
+     */
+    public void run(String name, String parameters, Operation operation) {
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                iteration(operation);
+            }
+            double[] throughputs = new double[measurementIterations];
+            long operations = 0;
+            long allocatedBytes = 0;
+            for (int i = 0; i < measurementIterations; i++) {
+                long[] iteration = iteration(operation);
+                throughputs[i] = iteration[0] * 1e9 / iteration[1];
+                operations += iteration[0];
+                allocatedBytes += iteration[2];
+            }
+            double mean = 0;
+            for (double throughput : throughputs) {
+                mean += throughput / throughputs.length;
+            }
+            double deviation = 0;
+            for (double throughput : throughputs) {
+                deviation += (throughput - mean) * (throughput - mean) / throughputs.length;
+            }
+            System.out.printf(Locale.ROOT, "%-34s %-26s %16.1f +- %5.1f%% ops/s %12.1f B/op%n",
+                    name, parameters, mean, mean == 0 ? 0 : 100 * Math.sqrt(deviation) / mean,
+                    (double) allocatedBytes / operations);
+        } catch (Exception e) {
+            throw new RuntimeException(name + " failed", e);
+        }
+    }
+
+    /**
+     * Runs the operation repeatedly for the duration of one iteration.
+     *
+     * @param operation the operation to run
+     * @return the number of operations, the elapsed nanoseconds and the allocated bytes
+     * @throws Exception if the operation fails
+     */
+    private long[] iteration(Operation operation) throws Exception {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        long operations = 0;
+        do {
+            sink = operation.run();
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return new long[]{operations, elapsed, allocatedBytes() - allocatedBefore};
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes, or 0 if the JVM does not count them
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean) {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,36 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * The SaveBenchmark class measures writing and reading a save file.
+ */
+public final class SaveBenchmark {
+    private SaveBenchmark() {
+    }
+
+    /**
+     * Runs the save benchmarks.
+     *
+     * @param harness the benchmark harness
+     * @param wordLength the length of the saved word
+     * @throws IOException if the save file cannot be created
+     */
+    public static void run(MicroBenchmark harness, int wordLength) throws IOException {
+        String parameters = "length=" + wordLength;
+        File file = new File(BenchmarkData.temporaryDirectory(), "player.hangman.txt");
+        GameSave.createSave(file);
+        GameSave gameSave = GameSave.loadSave(file);
+        gameSave.reset(new DictionaryWord(BenchmarkData.randomWord(new SplittableRandom(42), wordLength), Difficulty.Hard));
+        for (char letter : "EASITN".toCharArray()) {
+            gameSave.addGuessedCharacter(letter);
+        }
+        gameSave.setIncorrectGuesses(3);
+
+        harness.run("GameSave.saveFile", parameters, () -> {
+            gameSave.saveFile();
+            return gameSave;
+        });
+        harness.run("GameSave.loadSave", parameters, () -> GameSave.loadSave(file));
+    }
+}
@@ -0,0 +1,196 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * The ServerLoadBenchmark class measures the throughput and the latency of the game server over the loopback interface.
+ * Every simulated player opens its own connection, then plays games by guessing the letters
+ * in the order of their frequency in French until each game is over. The players connect first,
+ * then all start playing at once; the latency of each request is measured from sending it to reading its reply.
+ * <p>
+ * Usage: java ServerLoadBenchmark [--clients 1000] [--games 20] [--store files|indexed] [--port port]
+ * <p>
+ * Without --port, a server is started in the benchmark JVM, with a generated dictionary and its saves
+ * in a temporary folder. With --port, the clients connect to a server already running on that port.
+ */
+public final class ServerLoadBenchmark {
+    private ServerLoadBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the options
+     * @throws Exception if the server cannot be started or a client fails
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = 1000;
+        int games = 20;
+        String storeType = "files";
+        int port = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--store" -> storeType = args[i + 1];
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        HangmanServer server = null;
+        if (port == 0) {
+            File directory = BenchmarkData.temporaryDirectory();
+            File dictionaryFile = new File(directory, "words.txt");
+            BenchmarkData.writeDictionary(dictionaryFile, 30_000, 8, 42);
+            SaveStore store = storeType.equals("indexed")
+                    ? new IndexedSaveStore(new File(directory, "saves.db"))
+                    : new FileSaveStore(new File(directory, "saves"));
+            new File(directory, "saves").mkdirs();
+            server = new HangmanServer(new Dictionary(dictionaryFile), store, new Leaderboard(new File(directory, "players.stats")));
+            server.start(0);
+            port = server.getPort();
+            System.out.println("Server started on port " + port + " with " + storeType + " saves, "
+                    + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads");
+        }
+
+        Player[] players = new Player[clients];
+        Thread[] threads = new Thread[clients];
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        for (int i = 0; i < clients; i++) {
+            players[i] = new Player(port, "player" + i, games, connected, go);
+            threads[i] = new Thread(null, players[i], "player-" + i, 256 * 1024);
+            threads[i].start();
+        }
+        connected.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (server != null) {
+            server.stop();
+        }
+
+        int requestCount = 0;
+        int failures = 0;
+        for (Player player : players) {
+            requestCount += player.requestCount;
+            if (player.failure != null) {
+                failures++;
+                player.failure.printStackTrace();
+            }
+        }
+        long[] latencies = new long[requestCount];
+        int position = 0;
+        for (Player player : players) {
+            System.arraycopy(player.latencies, 0, latencies, position, player.requestCount);
+            position += player.requestCount;
+        }
+        Arrays.sort(latencies);
+        double seconds = elapsed / 1e9;
+        System.out.printf(Locale.ROOT, "%d clients, %d games each, %d requests in %.2f s, %d failed clients%n",
+                clients, games, requestCount, seconds, failures);
+        System.out.printf(Locale.ROOT, "throughput %.0f requests/s, %.0f games/s%n",
+                requestCount / seconds, (double) clients * games / seconds);
+        System.out.printf(Locale.ROOT, "latency p50 %.3f ms  p90 %.3f ms  p99 %.3f ms  max %.3f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Gets a percentile of sorted latencies.
+     *
+     * @param sortedLatencies the latencies in nanoseconds, sorted
+     * @param fraction the percentile, between 0 and 1
+     * @return the latency at the percentile, in milliseconds
+     */
+    private static double percentile(long[] sortedLatencies, double fraction) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, fraction * sortedLatencies.length)] / 1e6;
+    }
+
+    /**
+     * The Player class is a simulated player, playing on its own connection.
+     */
+    private static final class Player implements Runnable {
+        private final int port;
+        private final String username;
+        private final int games;
+        private final CountDownLatch connected;
+        private final CountDownLatch go;
+        private final long[] latencies;
+        private int requestCount;
+        private Exception failure;
+
+        Player(int port, String username, int games, CountDownLatch connected, CountDownLatch go) {
+            this.port = port;
+            this.username = username;
+            this.games = games;
+            this.connected = connected;
+            this.go = go;
+            this.latencies = new long[games * (GuessStrategy.FRENCH_FREQUENCY_ORDER.length() + 1) + 2];
+        }
+
+        @Override
+        public void run() {
+            boolean counted = false;
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket.setTcpNoDelay(true);
+                connected.countDown();
+                counted = true;
+                go.await();
+                request(reader, writer, "USER " + username);
+                for (int game = 0; game < games; game++) {
+                    String reply = request(reader, writer, "NEW");
+                    for (int i = 0; i < GuessStrategy.FRENCH_FREQUENCY_ORDER.length() && reply.contains(" PLAYING "); i++) {
+                        reply = request(reader, writer, "GUESS " + GuessStrategy.FRENCH_FREQUENCY_ORDER.charAt(i));
+                    }
+                }
+                request(reader, writer, "QUIT");
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                if (!counted) {
+                    connected.countDown();
+                }
+            }
+        }
+
+        /**
+         * Sends a request and reads its reply, recording the latency.
+         *
+         * @param reader the reader of the connection
+         * @param writer the writer of the connection
+         * @param request the request line
+         * @return the reply line
+         * @throws IOException if the connection fails or the server answers with an error
+         */
+        private String request(BufferedReader reader, BufferedWriter writer, String request) throws IOException {
+            long start = System.nanoTime();
+            writer.write(request);
+            writer.write('\n');
+            writer.flush();
+            String reply = reader.readLine();
+            latencies[requestCount++] = System.nanoTime() - start;
+            if (reply == null || reply.startsWith("ERROR")) {
+                throw new IOException(request + " failed: " + reply);
+            }
+            return reply;
+        }
+    }
+}
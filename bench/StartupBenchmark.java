@@ -0,0 +1,95 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The StartupBenchmark class measures the cold start of the game jar, with and without class-data sharing.
+ * Each run launches a new JVM on the startup training run (Program --train) and measures the time until it exits.
+ * The configurations are run in turns, so a slower period of the machine affects all of them alike:
+ * without any archive (-Xshare:off), with the archive of the JDK classes only (the JVM default),
+ * and with an archive of the game startup recorded by a training run.
+ * <p>
+ * Usage: java StartupBenchmark [--jar out/artifacts/Hangman_jar/Hangman.jar] [--runs 10] [--archive hangman.jsa]
+ * <p>
+ * Without --archive, an archive is recorded into a temporary folder first. Run from the folder holding words.txt.
+ */
+public final class StartupBenchmark {
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the options
+     * @throws Exception if a JVM cannot be launched
+     */
+    public static void main(String[] args) throws Exception {
+        String jar = "out/artifacts/Hangman_jar/Hangman.jar";
+        int runs = 10;
+        File archive = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--jar" -> jar = args[i + 1];
+                case "--runs" -> runs = Integer.parseInt(args[i + 1]);
+                case "--archive" -> archive = new File(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (archive == null) {
+            archive = new File(BenchmarkData.temporaryDirectory(), "hangman.jsa");
+            launch(List.of("-XX:ArchiveClassesAtExit=" + archive), jar);
+        }
+
+        String[] names = {"no archive", "JDK archive", "game archive"};
+        List<List<String>> options = List.of(
+                List.of("-Xshare:off"),
+                List.of(),
+                List.of("-XX:SharedArchiveFile=" + archive)
+        );
+        for (List<String> configuration : options) {
+            launch(configuration, jar);
+        }
+        double[][] millis = new double[options.size()][runs];
+        for (int run = 0; run < runs; run++) {
+            for (int configuration = 0; configuration < options.size(); configuration++) {
+                millis[configuration][run] = launch(options.get(configuration), jar) / 1e6;
+            }
+        }
+        for (int configuration = 0; configuration < options.size(); configuration++) {
+            double[] times = millis[configuration];
+            Arrays.sort(times);
+            double mean = Arrays.stream(times).average().orElse(0);
+            System.out.printf(Locale.ROOT, "%-14s min %8.1f ms  median %8.1f ms  mean %8.1f ms%n",
+                    names[configuration], times[0], times[times.length / 2], mean);
+        }
+    }
+
+    /**
+     * Launches the training run in a new JVM and waits for it to exit.
+     *
+     * @param options the JVM options
+     * @param jar the game jar
+     * @return the time from the launch to the exit, in nanoseconds
+     * @throws IOException if the JVM cannot be launched or fails
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private static long launch(List<String> options, String jar) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(options);
+        command.add("-jar");
+        command.add(jar);
+        command.add(Program.TRAINING_FLAG);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int exitCode = process.waitFor();
+        long elapsed = System.nanoTime() - start;
+        if (exitCode != 0) {
+            throw new IOException("Startup run failed with exit code " + exitCode + ": " + command);
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.SplittableRandom;
+
+/**
+ * The WordBenchmark class measures the masking of a word during a game.
+ */
+public final class WordBenchmark {
+    private WordBenchmark() {
+    }
+
+    /**
+     * Runs the word benchmarks.
+     *
+     * @param harness the benchmark harness
+     * @param wordLength the length of the word
+     */
+    public static void run(MicroBenchmark harness, int wordLength) {
+        String parameters = "length=" + wordLength;
+        DictionaryWord word = new DictionaryWord(BenchmarkData.randomWord(new SplittableRandom(42), wordLength), Difficulty.Easy);
+        int guessedLetters = LetterMask.of('A') | LetterMask.of('E') | LetterMask.of('S') | LetterMask.of('T');
+        HiddenWord hiddenWord = new HiddenWord(word, 0);
+        int[] letter = {0};
+
+        harness.run("DictionaryWord.getHiddenValue", parameters, () -> word.getHiddenValue(guessedLetters));
+        harness.run("DictionaryWord.containsLetter", parameters, () -> word.containsLetter((char) ('A' + (letter[0]++ % 26))));
+        harness.run("HiddenWord.reveal", parameters, () -> {
+            int index = letter[0]++ % 26;
+            if (index == 0) {
+                hiddenWord.reset(word, 0);
+            }
+            return hiddenWord.reveal((char) ('A' + index));
+        });
+    }
+}
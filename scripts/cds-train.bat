@@ -0,0 +1,8 @@
+@echo off
+rem Records a class-data sharing archive of the game startup with a training run.
+rem Usage: scripts\cds-train.bat [jar] [archive]
+set JAR=%~1
+if "%JAR%"=="" set JAR=out\artifacts\Hangman_jar\Hangman.jar
+set ARCHIVE=%~2
+if "%ARCHIVE%"=="" set ARCHIVE=hangman.jsa
+java -XX:ArchiveClassesAtExit=%ARCHIVE% -jar %JAR% --train
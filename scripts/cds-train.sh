@@ -0,0 +1,8 @@
+#!/bin/sh
+# Records a class-data sharing archive of the game startup with a training run.
+# Usage: scripts/cds-train.sh [jar] [archive]
+# Run from the folder holding words.txt. The archive only matches the jar it was recorded with:
+# record it again after each build.
+JAR="${1:-out/artifacts/Hangman_jar/Hangman.jar}"
+ARCHIVE="${2:-hangman.jsa}"
+exec java -XX:ArchiveClassesAtExit="$ARCHIVE" -jar "$JAR" --train
@@ -0,0 +1,8 @@
+@echo off
+rem Launches the game with the class-data sharing archive recorded by cds-train.bat.
+rem Usage: scripts\run-cds.bat [jar] [archive]
+set JAR=%~1
+if "%JAR%"=="" set JAR=out\artifacts\Hangman_jar\Hangman.jar
+set ARCHIVE=%~2
+if "%ARCHIVE%"=="" set ARCHIVE=hangman.jsa
+java -XX:SharedArchiveFile=%ARCHIVE% -Xshare:auto -jar %JAR%
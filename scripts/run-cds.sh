@@ -0,0 +1,7 @@
+#!/bin/sh
+# Launches the game with the class-data sharing archive recorded by cds-train.sh.
+# Usage: scripts/run-cds.sh [jar] [archive]
+# A missing or outdated archive is ignored with a warning, the game then starts without it.
+JAR="${1:-out/artifacts/Hangman_jar/Hangman.jar}"
+ARCHIVE="${2:-hangman.jsa}"
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -jar "$JAR"
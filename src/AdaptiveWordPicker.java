@@ -0,0 +1,94 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The AdaptiveWordPicker class picks the words of one player from the statistics of the words,
+ * aiming at a target win rate instead of a chosen difficulty level.
+ * The picker follows the recent win rate of the player: after a run of wins it asks the sampler for words
+ * that fewer players found, after a run of losses for easier ones.
+ * <p>
+ * The target win rate is read from the hangman.targetWinRate system property, 0.7 by default.
+ */
+public class AdaptiveWordPicker {
+    public static final String TARGET_WIN_RATE_PROPERTY = "hangman.targetWinRate";
+    public static final double DEFAULT_TARGET_WIN_RATE = 0.7;
+
+    /**
+     * The weight of the last round in the recent win rate of the player.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private final WordSampler sampler;
+    private final double targetWinRate;
+    private double recentWinRate;
+
+    /**
+     * Constructs an AdaptiveWordPicker aiming at the target win rate of the system property.
+     *
+     * @param sampler the sampler of the words
+     */
+    public AdaptiveWordPicker(WordSampler sampler) {
+        this(sampler, readTargetWinRate());
+    }
+
+    /**
+     * Constructs an AdaptiveWordPicker aiming at the specified win rate.
+     *
+     * @param sampler the sampler of the words
+     * @param targetWinRate the win rate the player should have, between 0 and 1
+     */
+    public AdaptiveWordPicker(WordSampler sampler, double targetWinRate) {
+        this.sampler = sampler;
+        this.targetWinRate = targetWinRate;
+        this.recentWinRate = targetWinRate;
+    }
+
+    /**
+     * Picks the word of the next round of the player.
+     *
+     * @return the picked word
+     */
+    public synchronized DictionaryWord pick() {
+        // ask for the win rate that brings the recent win rate of the player back to the target
+        double desiredWinRate = Math.max(0, Math.min(1, 2 * targetWinRate - recentWinRate));
+        return sampler.sample(desiredWinRate, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Records the result of a round of the player.
+     *
+     * @param won true if the player found the word
+     */
+    public synchronized void recordResult(boolean won) {
+        recentWinRate += SMOOTHING * ((won ? 1 : 0) - recentWinRate);
+    }
+
+    /**
+     * Gets the recent win rate of the player, weighting the last rounds the most.
+     *
+     * @return the recent win rate
+     */
+    public synchronized double getRecentWinRate() {
+        return recentWinRate;
+    }
+
+    /**
+     * Reads the target win rate from the system property.
+     *
+     * @return the target win rate, or the default one if the property is not set or invalid
+     */
+    private static double readTargetWinRate() {
+        String value = System.getProperty(TARGET_WIN_RATE_PROPERTY);
+        if (value != null) {
+            try {
+                double targetWinRate = Double.parseDouble(value);
+                if (targetWinRate >= 0 && targetWinRate <= 1) {
+                    return targetWinRate;
+                }
+            } catch (NumberFormatException e) {
+                e.printStackTrace();
+            }
+            System.err.println("Ignoring " + TARGET_WIN_RATE_PROPERTY + "=" + value + ": not a win rate between 0 and 1");
+        }
+        return DEFAULT_TARGET_WIN_RATE;
+    }
+}
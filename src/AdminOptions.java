@@ -1,13 +1,17 @@
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The AdminOptions class represents the admin options window for the Hangman game.
@@ -17,18 +21,23 @@ public class AdminOptions extends JFrame implements ListSelectionListener, Actio
     Dictionary dictionary;
     Difficulty currentDifficulty;
     List<DictionaryWord> selectedWords;
+    WordListModel wordsModel;
     JList<DictionaryWord> wordsList;
+    JTextField searchField;
     JComboBox<String> difficultyComboBox;
     JButton addWordButton;
     JButton removeWordButton;
+    JButton importWordsButton;
+    JButton exportWordsButton;
     JButton goBackToGameButton;
+    JProgressBar progressBar;
 
     /**
      * Constructs an AdminOptions object.
      * Sets up the window properties and initializes the components.
      */
     public AdminOptions() {
-        dictionary = new Dictionary();
+        dictionary = Dictionary.getShared();
         currentDifficulty = Difficulty.Easy;
         selectedWords = new ArrayList<>();
         setTitle("Hangman Admin");
@@ -44,13 +53,39 @@ public class AdminOptions extends JFrame implements ListSelectionListener, Actio
      * Builds the admin options window by adding the components.
      */
     private void build() {
-        wordsList = new JList<>(new Vector<>(dictionary.getWordsByDifficulty(currentDifficulty)));
+        wordsModel = new WordListModel(dictionary, currentDifficulty);
+        wordsList = new JList<>(wordsModel);
+        // a fixed cell size lets the list lay out and paint only the visible rows
+        wordsList.setPrototypeCellValue(new DictionaryWord("ANTICONSTITUTIONNELLEMENT", Difficulty.Hard));
         wordsList.addListSelectionListener(this);
         JScrollPane scrollList = new JScrollPane(wordsList);
         scrollList.setPreferredSize(new Dimension(200, 400));
 
+        searchField = new JTextField();
+        searchField.setToolTipText("Search words");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterWordList();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterWordList();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterWordList();
+            }
+        });
+
+        JPanel wordsPanel = new JPanel(new BorderLayout(0, 5));
+        wordsPanel.add(searchField, BorderLayout.NORTH);
+        wordsPanel.add(scrollList, BorderLayout.CENTER);
+
         JPanel buttons = new JPanel();
-        GridLayout buttonsLayout = new GridLayout(4, 1);
+        GridLayout buttonsLayout = new GridLayout(7, 1);
         buttonsLayout.setVgap(10);
         buttons.setLayout(buttonsLayout);
 
@@ -67,11 +102,24 @@ public class AdminOptions extends JFrame implements ListSelectionListener, Actio
         removeWordButton.setEnabled(false);
         buttons.add(removeWordButton);
 
+        importWordsButton = new JButton("Import words");
+        importWordsButton.addActionListener(this);
+        buttons.add(importWordsButton);
+
+        exportWordsButton = new JButton("Export words");
+        exportWordsButton.addActionListener(this);
+        buttons.add(exportWordsButton);
+
         goBackToGameButton = new JButton("Back to game");
         goBackToGameButton.addActionListener(this);
         buttons.add(goBackToGameButton);
 
-        add(scrollList);
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        buttons.add(progressBar);
+
+        add(wordsPanel);
         add(buttons);
         pack();
     }
@@ -90,7 +138,16 @@ public class AdminOptions extends JFrame implements ListSelectionListener, Actio
      * Reloads the word list based on the current difficulty.
      */
     private void reloadWordList() {
-        wordsList.setListData(new Vector<>(dictionary.getWordsByDifficulty(currentDifficulty)));
+        wordsList.clearSelection();
+        wordsModel.setDifficulty(currentDifficulty);
+    }
+
+    /**
+     * Filters the word list with the text of the search field.
+     */
+    private void filterWordList() {
+        wordsList.clearSelection();
+        wordsModel.setFilter(searchField.getText().trim());
     }
 
     /**
@@ -121,6 +178,10 @@ public class AdminOptions extends JFrame implements ListSelectionListener, Actio
             deleteSelectedWords();
         } else if (e.getSource() == addWordButton) {
             promptForNewWord();
+        } else if (e.getSource() == importWordsButton) {
+            importWords();
+        } else if (e.getSource() == exportWordsButton) {
+            exportWords();
         } else if (e.getSource() == goBackToGameButton) {
             dispose();
             Program.main(new String[]{});
@@ -128,26 +189,148 @@ public class AdminOptions extends JFrame implements ListSelectionListener, Actio
     }
 
     /**
-     * Deletes the selected words from the dictionary and reloads the word list.
+     * Deletes the selected words from the dictionary and from the word list.
      */
     private void deleteSelectedWords() {
         for (DictionaryWord word: selectedWords) {
-            dictionary.removeWord(word);
+            wordsModel.removeWord(word);
         }
-        dictionary.saveDictionary();
-        reloadWordList();
     }
 
     /**
-     * Prompts the admin to enter a new word and adds it to the dictionary.
+     * Prompts the admin to enter a new word and adds it to the dictionary, normalized like the imported words.
      */
     private void promptForNewWord() {
         String wordValue = JOptionPane.showInputDialog(this, "Enter new word (Difficulty " + currentDifficulty.toString() + ") :");
         if (wordValue == null || wordValue.isBlank()) return;
-        DictionaryWord word = new DictionaryWord(wordValue, currentDifficulty);
-        dictionary.addWord(word);
-        dictionary.saveDictionary();
-        reloadWordList();
+        // the same rules as the imported words, so a word added by hand can be found and guessed the same way
+        String value = WordImporter.normalize(wordValue.trim());
+        if (value == null) {
+            JOptionPane.showMessageDialog(this, "The word " + wordValue + " must only have the letters A to Z, accents being removed, "
+                    + "and between " + WordImporter.MIN_LENGTH + " and " + WordImporter.MAX_LENGTH + " letters.");
+            return;
+        }
+        DictionaryWord word = new DictionaryWord(value, currentDifficulty);
+        if (!wordsModel.addWord(word)) {
+            JOptionPane.showMessageDialog(this, "The word " + value + " is already in the dictionary.");
+            return;
+        }
+        wordsList.ensureIndexIsVisible(wordsModel.getSize() - 1);
+    }
+
+    /**
+     * Prompts the admin for word list files or directories, then imports their words in the background.
+     * The words cannot be edited until the import is done.
+     */
+    private void importWords() {
+        JFileChooser fileChooser = new JFileChooser(new File("."));
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        fileChooser.setMultiSelectionEnabled(true);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        List<File> sources = Arrays.asList(fileChooser.getSelectedFiles());
+
+        setEditingEnabled(false);
+        new SwingWorker<WordImporter.Report, String>() {
+            private volatile String lastStatus;
+
+            @Override
+            protected WordImporter.Report doInBackground() throws Exception {
+                WordImporter importer = new WordImporter(dictionary);
+                importer.setProgressListener((phase, done, total) -> {
+                    int percent = total == 0 ? 100 : (int) (done * 100 / total);
+                    String status = phase + " " + percent + "%";
+                    if (!status.equals(lastStatus)) {
+                        lastStatus = status;
+                        setProgress(percent);
+                        publish(status);
+                    }
+                });
+                return importer.importWords(sources);
+            }
+
+            @Override
+            protected void process(List<String> statuses) {
+                progressBar.setString(statuses.get(statuses.size() - 1));
+                progressBar.setValue(getProgress());
+            }
+
+            @Override
+            protected void done() {
+                setEditingEnabled(true);
+                progressBar.setValue(0);
+                progressBar.setString("");
+                reloadWordList();
+                try {
+                    JOptionPane.showMessageDialog(AdminOptions.this, get().toString(), "Import words", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(AdminOptions.this, "The words could not be imported: " + e.getCause().getMessage(),
+                            "Import words", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Prompts the admin for a file, then writes every word of the dictionary to it in the background,
+     * in the words.txt format.
+     */
+    private void exportWords() {
+        JFileChooser fileChooser = new JFileChooser(new File("."));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = fileChooser.getSelectedFile();
+
+        setEditingEnabled(false);
+        progressBar.setIndeterminate(true);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                dictionary.writeText(file);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                progressBar.setIndeterminate(false);
+                setEditingEnabled(true);
+                try {
+                    get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(AdminOptions.this, "The words could not be exported: " + e.getCause().getMessage(),
+                            "Export words", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Enables or disables the components changing the dictionary, while an import or export runs in the background.
+     *
+     * @param enabled true to enable the components, false to disable them
+     */
+    private void setEditingEnabled(boolean enabled) {
+        wordsList.setEnabled(enabled);
+        searchField.setEnabled(enabled);
+        difficultyComboBox.setEnabled(enabled);
+        addWordButton.setEnabled(enabled);
+        removeWordButton.setEnabled(enabled && !selectedWords.isEmpty());
+        importWordsButton.setEnabled(enabled);
+        exportWordsButton.setEnabled(enabled);
+        goBackToGameButton.setEnabled(enabled);
+    }
+
+    /**
+     * Closes the window, and stops its word list from following the dictionary.
+     */
+    @Override
+    public void dispose() {
+        wordsModel.close();
+        super.dispose();
     }
 
     /**
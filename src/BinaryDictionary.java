@@ -0,0 +1,236 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The BinaryDictionary class reads and writes the precompiled binary dictionary format.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int magic ("HGDB"), int version
+ * int wordCount for each Difficulty, in declaration order
+ * for each Difficulty: wordCount + 1 int offsets, the start of each word and the end of the last one
+ * the UTF-8 bytes of every word, packed one after another
+ * </pre>
+ * The file is memory-mapped when opened, a word is only decoded when it is asked for.
+ */
+public class BinaryDictionary {
+    public static final int MAGIC = 0x48474442;
+    public static final int VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private final int[] wordCounts;
+    private final int[] offsetTables;
+
+    /**
+     * Constructs a BinaryDictionary reading the specified buffer.
+     *
+     * @param buffer the buffer containing the whole binary dictionary
+     * @throws IOException if the buffer does not contain a supported binary dictionary
+     */
+    private BinaryDictionary(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary dictionary");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary dictionary version: " + buffer.getInt(4));
+        }
+        Difficulty[] difficulties = Difficulty.values();
+        wordCounts = new int[difficulties.length];
+        offsetTables = new int[difficulties.length];
+        int position = 8 + 4 * difficulties.length;
+        for (int i = 0; i < difficulties.length; i++) {
+            wordCounts[i] = buffer.getInt(8 + 4 * i);
+            offsetTables[i] = position;
+            position += 4 * (wordCounts[i] + 1);
+        }
+    }
+
+    /**
+     * Opens a binary dictionary file by memory-mapping it. No word is decoded.
+     *
+     * @param file the binary dictionary file
+     * @return the opened BinaryDictionary
+     * @throws IOException if an I/O error occurs or the file is not a binary dictionary
+     */
+    public static BinaryDictionary open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary dictionary too large: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryDictionary(buffer);
+        }
+    }
+
+    /**
+     * Checks whether the specified file starts with the binary dictionary magic number.
+     *
+     * @param file the file to check
+     * @return true if the file is a binary dictionary, false otherwise
+     */
+    public static boolean isBinaryDictionary(File file) {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            byte[] header = inputStream.readNBytes(4);
+            return header.length == 4 && ByteBuffer.wrap(header).getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of words with the specified difficulty.
+     *
+     * @param difficulty the difficulty level
+     * @return the number of words
+     */
+    public int getWordCount(Difficulty difficulty) {
+        return wordCounts[difficulty.ordinal()];
+    }
+
+    /**
+     * Decodes a single word, the other words are not read.
+     *
+     * @param difficulty the difficulty level of the word
+     * @param index the position of the word in its difficulty
+     * @return the decoded word
+     */
+    public DictionaryWord decodeWord(Difficulty difficulty, int index) {
+        if (index < 0 || index >= wordCounts[difficulty.ordinal()]) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + wordCounts[difficulty.ordinal()]);
+        }
+        int entry = offsetTables[difficulty.ordinal()] + 4 * index;
+        int start = buffer.getInt(entry);
+        int end = buffer.getInt(entry + 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new DictionaryWord(new String(bytes, StandardCharsets.UTF_8), difficulty);
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of a word without decoding it, the same way as hashValue.
+     *
+     * @param difficulty the difficulty level of the word
+     * @param index the position of the word in its difficulty
+     * @return the hash of the word
+     */
+    public int hashWord(Difficulty difficulty, int index) {
+        int entry = offsetTables[difficulty.ordinal()] + 4 * index;
+        int end = buffer.getInt(entry + 4);
+        int hash = 0;
+        for (int position = buffer.getInt(entry); position < end; position++) {
+            hash = 31 * hash + (buffer.get(position) & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Compares the UTF-8 bytes of a word with a value, without decoding the word.
+     *
+     * @param difficulty the difficulty level of the word
+     * @param index the position of the word in its difficulty
+     * @param value the UTF-8 bytes of the value
+     * @return true if the word has this value, false otherwise
+     */
+    public boolean wordEquals(Difficulty difficulty, int index, byte[] value) {
+        int entry = offsetTables[difficulty.ordinal()] + 4 * index;
+        int start = buffer.getInt(entry);
+        if (buffer.getInt(entry + 4) - start != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (buffer.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of a value.
+     *
+     * @param value the UTF-8 bytes of the value
+     * @return the hash of the value
+     */
+    public static int hashValue(byte[] value) {
+        int hash = 0;
+        for (byte b : value) {
+            hash = 31 * hash + (b & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Writes the words of a dictionary to a file in the binary format.
+     *
+     * @param dictionary the dictionary to write
+     * @param file the destination file
+     * @throws IOException if an I/O error occurs or the dictionary is too large for the format
+     */
+    public static void write(Dictionary dictionary, File file) throws IOException {
+        Difficulty[] difficulties = Difficulty.values();
+        long position = 8 + 4L * difficulties.length;
+        for (Difficulty difficulty : difficulties) {
+            position += 4L * (dictionary.getWordsByDifficulty(difficulty).size() + 1);
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            for (Difficulty difficulty : difficulties) {
+                output.writeInt(dictionary.getWordsByDifficulty(difficulty).size());
+            }
+            for (Difficulty difficulty : difficulties) {
+                List<DictionaryWord> words = dictionary.getWordsByDifficulty(difficulty);
+                for (DictionaryWord word : words) {
+                    output.writeInt((int) position);
+                    position += word.getRawValue().getBytes(StandardCharsets.UTF_8).length;
+                    if (position > Integer.MAX_VALUE) {
+                        throw new IOException("Dictionary too large for the binary format");
+                    }
+                }
+                output.writeInt((int) position);
+            }
+            for (Difficulty difficulty : difficulties) {
+                for (DictionaryWord word : dictionary.getWordsByDifficulty(difficulty)) {
+                    output.write(word.getRawValue().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a dictionary between the words.txt text format and the binary format.
+     * The input format is detected, the output is written in the other format.
+     *
+     * @param args the input file and the output file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryDictionary <input> <output>");
+            System.exit(1);
+        }
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        Dictionary dictionary = new Dictionary(input);
+        try {
+            if (isBinaryDictionary(input)) {
+                dictionary.writeText(output);
+            } else {
+                write(dictionary, output);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
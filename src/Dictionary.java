@@ -1,22 +1,151 @@
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * The Dictionary class represents a collection of words categorized by difficulty levels.
  * It provides methods to load, save, add, remove, and pick random words from the dictionary.
+ * <p>
+ * A dictionary can be read and edited by several threads at once. The words of each difficulty are held
+ * in immutable WordBucket snapshots: readers only read the latest published snapshots and never block,
+ * while edits are made one at a time and publish their new snapshots at once, so a reader sees an edit
+ * either completely or not at all.
  */
 public class Dictionary {
-    private final List<DictionaryWord> words;
+    /**
+     * The size of the change log, in bytes, above which the dictionary file is rewritten in the background.
+     */
+    public static final long COMPACTION_THRESHOLD = 1 << 20;
+
+    /**
+     * Writes the dictionary files one after another, off the calling thread.
+     */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dictionary-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static Dictionary shared;
+
+    private final Object writeLock = new Object();
+    private volatile WordBucket[] buckets;
+    private final File textFile;
+    private final File binaryFile;
+    private final DictionaryChangeLog changeLog;
+    private volatile boolean compactionScheduled;
+    private boolean saveScheduled;
+    private File loadedFile;
+    private long loadedLastModified;
+    private long loadedLength;
+    private volatile WordIndex index;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a Dictionary object and loads the words from the file.
+     * The precompiled words.bin is opened instead of words.txt when it is at least as recent.
      */
     public Dictionary() {
-        words = new ArrayList<>();
-        loadWords();
+        textFile = getFile();
+        binaryFile = new File("words.bin");
+        changeLog = new DictionaryChangeLog(DictionaryChangeLog.getLogFile(textFile));
+        loadWords(getSourceFile(textFile, binaryFile));
+        changeLog.replay(this, textFile);
+    }
+
+    /**
+     * Constructs a Dictionary object and loads the words from the specified file.
+     * The file can either be in the words.txt text format or in the binary format.
+     *
+     * @param file the dictionary file
+     */
+    public Dictionary(File file) {
+        if (BinaryDictionary.isBinaryDictionary(file)) {
+            textFile = null;
+            binaryFile = file;
+            changeLog = null;
+        } else {
+            textFile = file;
+            binaryFile = null;
+            changeLog = new DictionaryChangeLog(DictionaryChangeLog.getLogFile(file));
+        }
+        loadWords(file);
+        if (changeLog != null) {
+            changeLog.replay(this, textFile);
+        }
+    }
+
+    /**
+     * Constructs a snapshot of a Dictionary, later edits of the source are not visible in the snapshot.
+     *
+     * @param source the dictionary to copy
+     */
+    private Dictionary(Dictionary source) {
+        buckets = source.buckets;
+        textFile = source.textFile;
+        binaryFile = source.binaryFile;
+        changeLog = null;
+    }
+
+    /**
+     * Gets the dictionary shared by all the windows of the application.
+     * It is loaded on first use and only reloaded when the dictionary file changed on disk,
+     * edits made through the shared instance are kept in memory and do not cause a reload.
+     *
+     * @return the shared Dictionary
+     */
+    public static synchronized Dictionary getShared() {
+        if (shared == null || shared.isOutdated()) {
+            shared = new Dictionary();
+        }
+        return shared;
+    }
+
+    /**
+     * Chooses the file to load: the binary dictionary when it is at least as recent as the text one.
+     *
+     * @param textFile the dictionary file in the text format
+     * @param binaryFile the dictionary file in the binary format
+     * @return the file to load
+     */
+    private static File getSourceFile(File textFile, File binaryFile) {
+        if (binaryFile.isFile() && binaryFile.lastModified() >= textFile.lastModified()) {
+            return binaryFile;
+        }
+        return textFile;
+    }
+
+    /**
+     * Checks whether the dictionary file changed on disk since it was loaded or saved by this dictionary.
+     *
+     * @return true if the file was modified, replaced or removed, false otherwise
+     */
+    public synchronized boolean isOutdated() {
+        File sourceFile = textFile != null && binaryFile != null ? getSourceFile(textFile, binaryFile) : loadedFile;
+        return !sourceFile.equals(loadedFile)
+                || sourceFile.lastModified() != loadedLastModified
+                || sourceFile.length() != loadedLength;
+    }
+
+    /**
+     * Remembers the modification time and the size of the specified file, to detect later changes.
+     *
+     * @param file the file the dictionary was loaded from or saved to
+     */
+    private synchronized void updateLoadedStamp(File file) {
+        loadedFile = file;
+        loadedLastModified = file.lastModified();
+        loadedLength = file.length();
     }
 
     /**
@@ -38,85 +167,504 @@ public class Dictionary {
     }
 
     /**
-     * Loads the words from the dictionary file into the words list.
+     * Loads the words from the specified dictionary file into the words buckets.
+     * A binary dictionary is opened lazily, its words are decoded when they are first read.
+     *
+     * @param file the dictionary file, in the text or the binary format
      */
-    private void loadWords() {
+    private void loadWords(File file) {
+        updateLoadedStamp(file);
         try {
-            File file = getFile();
-            Scanner scanner = new Scanner(file);
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                String[] parsed = line.split("\\|");
-                String difficultyWord = parsed[0];
-                Difficulty difficulty = Difficulty.valueOf(difficultyWord);
-                words.addAll(Arrays.stream(parsed).skip(1).map(s -> new DictionaryWord(s, difficulty)).toList());
+            if (BinaryDictionary.isBinaryDictionary(file)) {
+                BinaryDictionary binaryDictionary = BinaryDictionary.open(file);
+                WordBucket[] loaded = new WordBucket[Difficulty.values().length];
+                for (Difficulty difficulty : Difficulty.values()) {
+                    loaded[difficulty.ordinal()] = new WordBucket(binaryDictionary, difficulty);
+                }
+                buckets = loaded;
+                return;
             }
+            WordBucket[] loaded = emptyBuckets();
+            buckets = loaded;
+            new DictionaryLoader(word -> {
+                int position = word.getDifficulty().ordinal();
+                loaded[position] = loaded[position].withAppended(word);
+            }).load(file);
+            buckets = loaded;
         } catch (IOException e) {
             e.printStackTrace();
+            if (buckets == null) {
+                buckets = emptyBuckets();
+            }
         }
     }
 
     /**
      * Saves the current state of the dictionary to the file.
+     * The binary dictionary is rewritten as well when one is used, so it stays up to date.
+     * The change log is emptied, since every change it holds is now in the file.
+     * The call waits for the files to be written, so it must not be made while holding the write lock.
      */
     public void saveDictionary() {
-        File file = getFile();
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            StringBuilder output = new StringBuilder();
-            for (Difficulty difficulty : Difficulty.values()) {
-                output
-                        .append(difficulty.toString())
-                        .append('|')
-                        .append(
-                                getWordsByDifficulty(difficulty)
-                                        .stream()
-                                        .map(DictionaryWord::getRawValue)
-                                        .collect(Collectors.joining("|"))
-                        ).append('\n');
-            }
-            fileWriter.write(output.toString());
-        } catch (IOException e) {
+        Dictionary snapshot;
+        long logPosition;
+        // no edit may land between the snapshot and the log position, or it would be lost or replayed twice
+        synchronized (writeLock) {
+            snapshot = new Dictionary(this);
+            logPosition = changeLog != null ? changeLog.position() : 0;
+        }
+        try {
+            WRITER.submit(() -> {
+                writeSnapshot(snapshot, logPosition);
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
     }
 
     /**
-     * Gets the list of words filtered by the specified difficulty.
+     * Adds a new word to the dictionary and records the addition in the change log, instead of rewriting
+     * the whole dictionary file. The word is added and logged under the write lock, so the log always
+     * holds the edits in the order they were made to the words. A dictionary opened from a binary file
+     * has no change log: the file is rewritten in the background instead.
      *
-     * @param difficulty the difficulty level to filter the words
+     * @param word the DictionaryWord object to add
+     * @return true if the word was added, false if the dictionary already holds a word with its value
+     */
+    public boolean addLoggedWord(DictionaryWord word) {
+        synchronized (writeLock) {
+            if (!addWord(word)) {
+                return false;
+            }
+            if (changeLog == null) {
+                scheduleSave();
+                return true;
+            }
+            changeLog.logAddition(word);
+            compactIfNeeded();
+            return true;
+        }
+    }
+
+    /**
+     * Removes a word from the dictionary and records the removal in the change log, instead of rewriting
+     * the whole dictionary file. The word is removed and logged under the write lock, or the file is rewritten
+     * in the background when the dictionary has no change log.
+     *
+     * @param word the DictionaryWord object to remove
+     * @return the position the word had in the list of its difficulty, or -1 if it was not in the dictionary
+     */
+    public int removeLoggedWord(DictionaryWord word) {
+        synchronized (writeLock) {
+            int position = removeWord(word);
+            if (position < 0) {
+                return position;
+            }
+            if (changeLog == null) {
+                scheduleSave();
+                return position;
+            }
+            changeLog.logRemoval(word);
+            compactIfNeeded();
+            return position;
+        }
+    }
+
+    /**
+     * Rewrites the dictionary files in the background, for a dictionary without a change log.
+     * The write lock must be held. The snapshot is only taken when the write starts, so a burst of edits
+     * is written once, and the editing thread never waits for the disk.
+     */
+    private void scheduleSave() {
+        if (saveScheduled) {
+            return;
+        }
+        saveScheduled = true;
+        WRITER.execute(() -> {
+            Dictionary snapshot;
+            synchronized (writeLock) {
+                saveScheduled = false;
+                snapshot = new Dictionary(this);
+            }
+            try {
+                writeSnapshot(snapshot, 0);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Rewrites the dictionary file in the background once the change log is larger than the threshold.
+     * The write lock must be held, so the snapshot holds exactly the edits logged before the log position.
+     */
+    private void compactIfNeeded() {
+        if (compactionScheduled || changeLog.length() < COMPACTION_THRESHOLD) {
+            return;
+        }
+        compactionScheduled = true;
+        Dictionary snapshot = new Dictionary(this);
+        long logPosition = changeLog.position();
+        WRITER.execute(() -> {
+            try {
+                writeSnapshot(snapshot, logPosition);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                compactionScheduled = false;
+            }
+        });
+    }
+
+    /**
+     * Writes a snapshot of the dictionary to temporary files, then moves them over the dictionary files.
+     * A checkpoint is logged before the move, so an interrupted write never replays changes twice.
+     *
+     * @param snapshot the snapshot to write
+     * @param logPosition the position of the first record of the change log not included in the snapshot
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeSnapshot(Dictionary snapshot, long logPosition) throws IOException {
+        File temporaryTextFile = null;
+        File temporaryBinaryFile = null;
+        if (textFile != null) {
+            temporaryTextFile = new File(textFile.getPath() + ".tmp");
+            snapshot.writeText(temporaryTextFile);
+        }
+        if (binaryFile != null && (textFile == null || binaryFile.isFile())) {
+            temporaryBinaryFile = new File(binaryFile.getPath() + ".tmp");
+            BinaryDictionary.write(snapshot, temporaryBinaryFile);
+        }
+        if (changeLog != null) {
+            changeLog.logCheckpoint(logPosition, temporaryTextFile);
+        }
+        if (temporaryTextFile != null) {
+            Files.move(temporaryTextFile.toPath(), textFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (temporaryBinaryFile != null) {
+            Files.move(temporaryBinaryFile.toPath(), binaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (changeLog != null) {
+            changeLog.discardBefore(logPosition);
+        }
+        updateLoadedStamp(textFile == null ? binaryFile : binaryFile == null ? textFile : getSourceFile(textFile, binaryFile));
+    }
+
+    /**
+     * Writes the words of the dictionary to a file in the words.txt text format.
+     * The words are written one by one, the content of the file is never built in memory.
+     *
+     * @param file the destination file
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeText(File file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                writer.write(difficulty.toString());
+                for (DictionaryWord word : getWordsByDifficulty(difficulty)) {
+                    writer.write('|');
+                    writer.write(word.getRawValue());
+                }
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Gets the list of words with the specified difficulty.
+     * The returned list is a read-only view of the dictionary, it is not copied.
+     *
+     * @param difficulty the difficulty level of the words
      * @return the list of words with the specified difficulty
      */
     public List<DictionaryWord> getWordsByDifficulty(Difficulty difficulty) {
-        return words.stream().filter(word -> difficulty == word.getDifficulty()).toList();
+        return buckets[difficulty.ordinal()];
     }
 
     /**
-     * Adds a new word to the dictionary.
+     * Creates a bucket without any word for each difficulty level.
+     *
+     * @return the empty buckets, indexed by the ordinal of their difficulty
+     */
+    private static WordBucket[] emptyBuckets() {
+        WordBucket[] empty = new WordBucket[Difficulty.values().length];
+        for (int i = 0; i < empty.length; i++) {
+            empty[i] = new WordBucket();
+        }
+        return empty;
+    }
+
+    /**
+     * Adds a new word to the dictionary, unless it already holds a word with the same value, whatever its difficulty,
+     * ignoring case. The check and the addition are made under the write lock, so two threads never add the same word.
      *
      * @param word the DictionaryWord object to add
+     * @return true if the word was added, false if the dictionary already holds a word with its value
      */
-    public void addWord(DictionaryWord word) {
-        words.add(word);
+    public boolean addWord(DictionaryWord word) {
+        synchronized (writeLock) {
+            if (containsWord(word.getRawValue())) {
+                return false;
+            }
+            appendWord(word);
+            return true;
+        }
+    }
+
+    /**
+     * Adds a word read from the change log. It is not checked for duplicates: it was checked when it was logged,
+     * and the search index is not built while the dictionary is loaded.
+     *
+     * @param word the DictionaryWord object to add
+     */
+    void addReplayedWord(DictionaryWord word) {
+        synchronized (writeLock) {
+            appendWord(word);
+        }
+    }
+
+    /**
+     * Publishes the buckets with a word appended to the list of its difficulty. The write lock must be held.
+     *
+     * @param word the DictionaryWord object to add
+     */
+    private void appendWord(DictionaryWord word) {
+        WordBucket[] previous = buckets;
+        WordBucket[] next = previous.clone();
+        int position = word.getDifficulty().ordinal();
+        next[position] = next[position].withAppended(word);
+        buckets = next;
+        if (index != null) {
+            index.add(word);
+        }
+        fireWordsChanged(previous, word.getDifficulty(), previous[position].size(), 0, 1);
+    }
+
+    /**
+     * Adds many new words to the dictionary, at the end of the lists of their difficulties.
+     * The words whose value is already in the dictionary, or earlier in the collection, are left out, ignoring case.
+     * The search index is built again on its next use instead of inserting each word into it.
+     *
+     * @param newWords the DictionaryWord objects to add
+     * @return the number of words added
+     */
+    public int addWords(Collection<DictionaryWord> newWords) {
+        synchronized (writeLock) {
+            WordIndex current = getIndex();
+            Set<String> added = new HashSet<>();
+            WordBucket[] previous = buckets;
+            WordBucket[] next = previous.clone();
+            int addedCount = 0;
+            for (DictionaryWord word : newWords) {
+                String key = word.getRawValue().toUpperCase();
+                if (current.contains(key) || !added.add(key)) {
+                    continue;
+                }
+                int position = word.getDifficulty().ordinal();
+                next[position] = next[position].withAppended(word);
+                addedCount++;
+            }
+            buckets = next;
+            if (addedCount > 0) {
+                index = null;
+            }
+            for (Difficulty difficulty : Difficulty.values()) {
+                int position = difficulty.ordinal();
+                if (next[position] != previous[position]) {
+                    fireWordsChanged(previous, difficulty, previous[position].size(), 0,
+                            next[position].size() - previous[position].size());
+                }
+            }
+            return addedCount;
+        }
+    }
+
+    /**
+     * Replaces every word of the dictionary, for example after sorting them into new difficulty levels.
+     * Each word must have the difficulty of the list it is in. The file is not saved.
+     *
+     * @param newWords the new words by difficulty level
+     */
+    public void replaceWords(Map<Difficulty, ? extends Collection<DictionaryWord>> newWords) {
+        WordBucket[] next = emptyBuckets();
+        for (Difficulty difficulty : Difficulty.values()) {
+            Collection<DictionaryWord> bucketWords = newWords.get(difficulty);
+            if (bucketWords != null) {
+                for (DictionaryWord word : bucketWords) {
+                    next[difficulty.ordinal()] = next[difficulty.ordinal()].withAppended(word);
+                }
+            }
+        }
+        synchronized (writeLock) {
+            WordBucket[] previous = buckets;
+            buckets = next;
+            index = null;
+            for (Difficulty difficulty : Difficulty.values()) {
+                int position = difficulty.ordinal();
+                fireWordsChanged(previous, difficulty, 0, previous[position].size(), next[position].size());
+            }
+        }
     }
 
     /**
      * Removes a word from the dictionary.
      *
      * @param word the DictionaryWord object to remove
+     * @return the position the word had in the list of its difficulty, or -1 if it was not in the dictionary
      */
-    public void removeWord(DictionaryWord word) {
-        words.remove(word);
+    public int removeWord(DictionaryWord word) {
+        synchronized (writeLock) {
+            int position = buckets[word.getDifficulty().ordinal()].indexOf(word);
+            if (position >= 0) {
+                WordBucket[] previous = removeAt(word.getDifficulty(), position);
+                if (index != null) {
+                    index.remove(word);
+                }
+                fireWordsChanged(previous, word.getDifficulty(), position, 1, 0);
+            }
+            return position;
+        }
     }
 
     /**
-     * Picks a random word from the dictionary with the specified difficulty.
+     * Removes the first word with the specified value and difficulty, used when replaying the change log.
+     *
+     * @param value the raw value of the word
+     * @param difficulty the difficulty level of the word
+     */
+    void removeWord(String value, Difficulty difficulty) {
+        synchronized (writeLock) {
+            int position = buckets[difficulty.ordinal()].indexOfValue(value);
+            if (position >= 0) {
+                WordBucket[] previous = removeAt(difficulty, position);
+                index = null;
+                fireWordsChanged(previous, difficulty, position, 1, 0);
+            }
+        }
+    }
+
+    /**
+     * Publishes the buckets without the word at the specified position. The write lock must be held.
+     *
+     * @param difficulty the difficulty level of the word
+     * @param position the position of the word in the list of its difficulty
+     * @return the buckets before the removal
+     */
+    private WordBucket[] removeAt(Difficulty difficulty, int position) {
+        WordBucket[] previous = buckets;
+        WordBucket[] next = previous.clone();
+        next[difficulty.ordinal()] = next[difficulty.ordinal()].without(position);
+        buckets = next;
+        return previous;
+    }
+
+    /**
+     * Tells the listeners that the words of a difficulty level changed, once the search index is up to date.
+     * The write lock must be held, so the listeners are told of the edits one at a time and in order.
+     *
+     * @param previous the buckets before the edit
+     * @param difficulty the difficulty level of the changed words
+     * @param index the position of the first changed word
+     * @param removedCount the number of words removed from the position
+     * @param addedCount the number of words added at the position
+     */
+    private void fireWordsChanged(WordBucket[] previous, Difficulty difficulty, int index, int removedCount, int addedCount) {
+        for (ChangeListener listener : listeners) {
+            listener.wordsChanged(difficulty, previous[difficulty.ordinal()], buckets[difficulty.ordinal()],
+                    index, removedCount, addedCount);
+        }
+    }
+
+    /**
+     * Registers a listener told of every later edit of the dictionary.
+     *
+     * @param listener the listener
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the search index of the words, built on first use and then kept up to date with the dictionary.
+     *
+     * @return the search index
+     */
+    public WordIndex getIndex() {
+        WordIndex current = index;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (index == null) {
+                    index = new WordIndex(this);
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Checks whether the dictionary holds a word with the specified value, whatever its difficulty, ignoring case.
+     *
+     * @param value the value of the word
+     * @return true if the word is in the dictionary, false otherwise
+     */
+    public boolean containsWord(String value) {
+        return getIndex().contains(value);
+    }
+
+    /**
+     * Picks a random word from the dictionary with the specified difficulty,
+     * with the random generator of the calling thread, so threads picking words at once never contend.
      *
      * @param difficulty the difficulty level to filter the words
      * @return a randomly picked DictionaryWord object
      */
     public DictionaryWord pickRandomWord(Difficulty difficulty) {
-        Random rand = new Random();
-        List<DictionaryWord> filteredWords = words.stream().filter(word -> difficulty == word.getDifficulty()).toList();
-        return filteredWords.get(rand.nextInt(filteredWords.size()));
+        return pickRandomWord(difficulty, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Picks a random word from the dictionary with the specified difficulty, with the specified random generator.
+     *
+     * @param difficulty the difficulty level to filter the words
+     * @param random the random generator, seeded to pick the same words again
+     * @return a randomly picked DictionaryWord object
+     * @see WordPicker
+     */
+    public DictionaryWord pickRandomWord(Difficulty difficulty, RandomGenerator random) {
+        WordBucket bucket = buckets[difficulty.ordinal()];
+        return bucket.get(random.nextInt(bucket.size()));
+    }
+
+    /**
+     * The ChangeListener interface is told of the edits of a dictionary, to follow them without reading
+     * every word again. It is called on the editing thread while the edit is made, and must return quickly.
+     */
+    public interface ChangeListener {
+        /**
+         * Tells that a range of the words of a difficulty level was replaced.
+         *
+         * @param difficulty the difficulty level of the changed words
+         * @param previousWords the words of the difficulty before the edit
+         * @param words the words of the difficulty after the edit
+         * @param index the position of the first changed word
+         * @param removedCount the number of words removed from the position
+         * @param addedCount the number of words added at the position
+         */
+        void wordsChanged(Difficulty difficulty, List<DictionaryWord> previousWords, List<DictionaryWord> words,
+                          int index, int removedCount, int addedCount);
     }
-}
\ No newline at end of file
+}
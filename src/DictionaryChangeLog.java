@@ -0,0 +1,251 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The DictionaryChangeLog class is an append-only log of the words added to and removed from a dictionary
+ * since its file was last written, so a single edit never rewrites the whole dictionary file.
+ * <p>
+ * Each record is one line: "+Difficulty|word" for an addition, "-Difficulty|word" for a removal.
+ * While the dictionary file is being compacted, a checkpoint line "=count|length|crc" tells that the first
+ * count records of the log are already included in the new dictionary file, in case the compaction is interrupted.
+ * <p>
+ * The records are located by their number rather than by a byte offset: the position of a record is the number
+ * of records logged before it, the records already discarded included. A position taken for a snapshot therefore
+ * stays valid while an earlier snapshot discards the beginning of the log.
+ */
+public class DictionaryChangeLog {
+    private final File file;
+    private long recordCount;
+    private long discardedCount;
+
+    /**
+     * Constructs a DictionaryChangeLog stored in the specified file.
+     *
+     * @param file the log file, created on the first append
+     */
+    public DictionaryChangeLog(File file) {
+        this.file = file;
+        if (file.isFile()) {
+            try {
+                byte[] log = Files.readAllBytes(file.toPath());
+                int lineStart = 0;
+                for (int i = 0; i < log.length; i++) {
+                    if (log[i] == '\n') {
+                        if (log[lineStart] != '=') {
+                            recordCount++;
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Gets the change log file of a dictionary file: "words.txt" is logged in "words.log".
+     *
+     * @param dictionaryFile the dictionary file in the text format
+     * @return the change log file
+     */
+    public static File getLogFile(File dictionaryFile) {
+        String path = dictionaryFile.getPath();
+        if (path.endsWith(".txt")) {
+            path = path.substring(0, path.length() - 4);
+        }
+        return new File(path + ".log");
+    }
+
+    /**
+     * Gets the current size of the log.
+     *
+     * @return the size of the log in bytes
+     */
+    public synchronized long length() {
+        return file.length();
+    }
+
+    /**
+     * Gets the position of the next record: the number of records logged so far, the discarded ones included.
+     *
+     * @return the position after the last record
+     */
+    public synchronized long position() {
+        return recordCount;
+    }
+
+    /**
+     * Appends the addition of a word to the log.
+     *
+     * @param word the added word
+     */
+    public void logAddition(DictionaryWord word) {
+        append('+' + word.getDifficulty().toString() + '|' + word.getRawValue() + '\n');
+    }
+
+    /**
+     * Appends the removal of a word to the log.
+     *
+     * @param word the removed word
+     */
+    public void logRemoval(DictionaryWord word) {
+        append('-' + word.getDifficulty().toString() + '|' + word.getRawValue() + '\n');
+    }
+
+    /**
+     * Appends a checkpoint: the records before the position are included in the dictionary file
+     * with the specified length and checksum.
+     *
+     * @param position the position of the first record not included in the dictionary file
+     * @param dictionaryFile the new dictionary file, in the text format
+     */
+    public synchronized void logCheckpoint(long position, File dictionaryFile) {
+        // the checkpoint counts the records still in the file, which is what a replay sees
+        append("=" + (position - discardedCount) + '|' + dictionaryFile.length() + '|' + checksum(dictionaryFile) + '\n');
+    }
+
+    /**
+     * Appends a record at the end of the log.
+     *
+     * @param record the record line
+     */
+    private synchronized void append(String record) {
+        try (OutputStream outputStream = new FileOutputStream(file, true)) {
+            outputStream.write(record.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (record.charAt(0) != '=') {
+            recordCount++;
+        }
+    }
+
+    /**
+     * Replays the log on a dictionary which was just loaded from the specified file.
+     * When the log holds a checkpoint matching the dictionary file, the records it covers are skipped.
+     * An incomplete last record, left by an interrupted append, is ignored.
+     *
+     * @param dictionary the dictionary to update
+     * @param dictionaryFile the dictionary file in the text format
+     */
+    public synchronized void replay(Dictionary dictionary, File dictionaryFile) {
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            byte[] log = Files.readAllBytes(file.toPath());
+            long skipped = findCheckpoint(log, dictionaryFile);
+            int lineStart = 0;
+            for (int i = 0; i < log.length; i++) {
+                if (log[i] != '\n') {
+                    continue;
+                }
+                String record = new String(log, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                lineStart = i + 1;
+                int separator = record.indexOf('|');
+                if (record.startsWith("=") || skipped-- > 0 || separator < 1) {
+                    continue;
+                }
+                Difficulty difficulty = Difficulty.valueOf(record.substring(1, separator));
+                String value = record.substring(separator + 1);
+                if (record.charAt(0) == '+') {
+                    dictionary.addReplayedWord(new DictionaryWord(value, difficulty));
+                } else if (record.charAt(0) == '-') {
+                    dictionary.removeWord(value, difficulty);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Finds the last checkpoint matching the dictionary file.
+     *
+     * @param log the content of the log
+     * @param dictionaryFile the dictionary file in the text format
+     * @return the number of records of the log included in the dictionary file
+     */
+    private static long findCheckpoint(byte[] log, File dictionaryFile) {
+        long start = 0;
+        int lineStart = 0;
+        for (int i = 0; i < log.length; i++) {
+            if (log[i] != '\n') {
+                continue;
+            }
+            if (log[lineStart] == '=') {
+                String[] checkpoint = new String(log, lineStart + 1, i - lineStart - 1, StandardCharsets.UTF_8).split("\\|");
+                if (Long.parseLong(checkpoint[1]) == dictionaryFile.length()
+                        && Long.parseLong(checkpoint[2]) == checksum(dictionaryFile)) {
+                    start = Long.parseLong(checkpoint[0]);
+                }
+            }
+            lineStart = i + 1;
+        }
+        return start;
+    }
+
+    /**
+     * Removes the records before the position, and any checkpoint, once they are included in the dictionary file.
+     * Records appended in the meantime are kept.
+     *
+     * @param position the position of the first record not included in the dictionary file
+     */
+    public synchronized void discardBefore(long position) {
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            byte[] log = Files.readAllBytes(file.toPath());
+            long discarded = Math.max(0, position - discardedCount);
+            File temporaryFile = new File(file.getPath() + ".tmp");
+            try (OutputStream outputStream = new FileOutputStream(temporaryFile)) {
+                long skipped = discarded;
+                int lineStart = 0;
+                for (int i = 0; i < log.length; i++) {
+                    if (log[i] != '\n') {
+                        continue;
+                    }
+                    if (log[lineStart] != '=' && skipped-- <= 0) {
+                        outputStream.write(log, lineStart, i + 1 - lineStart);
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            discardedCount += discarded;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Computes the CRC32 checksum of a file.
+     *
+     * @param file the file
+     * @return the checksum, or -1 if the file cannot be read
+     */
+    static long checksum(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            CRC32 crc = new CRC32();
+            for (long position = 0; position < channel.size(); position += Integer.MAX_VALUE) {
+                long windowSize = Math.min(Integer.MAX_VALUE, channel.size() - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                crc.update(buffer);
+            }
+            return crc.getValue();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
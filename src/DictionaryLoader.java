@@ -0,0 +1,104 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The DictionaryLoader class reads dictionary files in the words.txt text format.
+ * Each line starts with a difficulty name followed by the words of that difficulty, all separated by '|'.
+ * The file is memory-mapped and scanned byte by byte, so lines of any length can be loaded
+ * without building intermediate line strings.
+ */
+public class DictionaryLoader {
+    /**
+     * The largest region mapped at once, files bigger than this are mapped window by window.
+     */
+    private static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+    private final Consumer<DictionaryWord> consumer;
+    private byte[] token;
+    private int tokenLength;
+    private Difficulty currentDifficulty;
+    private boolean lineStart;
+
+    /**
+     * Constructs a DictionaryLoader that passes every loaded word to the specified consumer.
+     *
+     * @param consumer the consumer receiving the loaded words
+     */
+    public DictionaryLoader(Consumer<DictionaryWord> consumer) {
+        this.consumer = consumer;
+        this.token = new byte[64];
+    }
+
+    /**
+     * Loads all the words of the specified file.
+     *
+     * @param file the dictionary file in the text format
+     * @throws IOException if an I/O error occurs
+     */
+    public void load(File file) throws IOException {
+        tokenLength = 0;
+        currentDifficulty = null;
+        lineStart = true;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAX_WINDOW_SIZE) {
+                long windowSize = Math.min(MAX_WINDOW_SIZE, size - position);
+                scan(channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize));
+            }
+        }
+        endToken();
+    }
+
+    /**
+     * Scans a mapped window of the file, tokens may continue in the next window.
+     *
+     * @param buffer the mapped window
+     */
+    private void scan(MappedByteBuffer buffer) {
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            switch (b) {
+                case '|' -> endToken();
+                case '\n' -> {
+                    endToken();
+                    currentDifficulty = null;
+                    lineStart = true;
+                }
+                case '\r' -> {
+                    // ignored, lines may end with "\r\n"
+                }
+                default -> {
+                    if (tokenLength == token.length) {
+                        token = Arrays.copyOf(token, tokenLength * 2);
+                    }
+                    token[tokenLength++] = b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends the current token: the first token of a line is the difficulty, the others are words.
+     * Empty tokens are skipped.
+     */
+    private void endToken() {
+        if (tokenLength == 0) {
+            return;
+        }
+        String value = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+        tokenLength = 0;
+        if (lineStart) {
+            currentDifficulty = Difficulty.valueOf(value);
+            lineStart = false;
+        } else {
+            consumer.accept(new DictionaryWord(value, currentDifficulty));
+        }
+    }
+}
@@ -1,12 +1,13 @@
-import java.util.ArrayList;
 import java.util.Collection;
 
 /**
  * The DictionaryWord class represents a word in the dictionary with an associated difficulty level.
  */
 public class DictionaryWord {
-    String value;
-    Difficulty difficulty;
+    final String value;
+    final Difficulty difficulty;
+    private final int letterMask;
+    private Letters letters;
 
     /**
      * Constructs a DictionaryWord object with the specified value and difficulty.
@@ -17,6 +18,7 @@ public class DictionaryWord {
     public DictionaryWord(String value, Difficulty difficulty) {
         this.value = value;
         this.difficulty = difficulty;
+        this.letterMask = LetterMask.ofWord(value);
     }
 
     /**
@@ -36,11 +38,29 @@ public class DictionaryWord {
      * @return the word with hidden letters
      */
     public String getHiddenValue(Collection<Character> visibleLetters) {
-        StringBuilder output = new StringBuilder();
-        for (char letter : getValue().toCharArray()) {
-            output.append(visibleLetters.contains(letter) ? letter + " " : "_ ");
+        return getHiddenValue(LetterMask.of(visibleLetters));
+    }
+
+    /**
+     * Returns the word with hidden letters, showing only the letters in the visibleLetters mask.
+     *
+     * @param visibleLetters the mask of the letters to be shown
+     * @return the word with hidden letters
+     * @see LetterMask
+     */
+    public String getHiddenValue(int visibleLetters) {
+        char[] upperCase = getLetters().upperCase;
+        if (upperCase.length == 0) {
+            return "";
         }
-        return output.toString().trim();
+        char[] output = new char[upperCase.length * 2 - 1];
+        for (int i = 0; i < upperCase.length; i++) {
+            output[i * 2] = LetterMask.contains(visibleLetters, upperCase[i]) ? upperCase[i] : '_';
+            if (i > 0) {
+                output[i * 2 - 1] = ' ';
+            }
+        }
+        return new String(output);
     }
 
     /**
@@ -49,7 +69,7 @@ public class DictionaryWord {
      * @return the word with all letters hidden
      */
     public String getHiddenValue() {
-        return getHiddenValue(new ArrayList<>());
+        return getHiddenValue(0);
     }
 
     /**
@@ -59,7 +79,27 @@ public class DictionaryWord {
      * @return true if the word contains the letter, false otherwise
      */
     public boolean containsLetter(char letter) {
-        return getValue().contains(String.valueOf(letter));
+        return (letterMask & LetterMask.of(letter)) != 0;
+    }
+
+    /**
+     * Checks if every letter of the word is in the specified mask.
+     *
+     * @param guessedLetters the mask of the guessed letters
+     * @return true if the word is fully revealed, false otherwise
+     */
+    public boolean isRevealedBy(int guessedLetters) {
+        return (letterMask & ~guessedLetters) == 0;
+    }
+
+    /**
+     * Returns the mask of the letters of the word.
+     *
+     * @return the mask of the letters of the word
+     * @see LetterMask
+     */
+    public int getLetterMask() {
+        return letterMask;
     }
 
     /**
@@ -68,7 +108,21 @@ public class DictionaryWord {
      * @return the word value in uppercase
      */
     public String getValue() {
-        return value.toUpperCase();
+        return getLetters().upperCaseValue;
+    }
+
+    /**
+     * Returns the cached upper-case letters and letter positions of the word, computing them on first use.
+     *
+     * @return the letters of the word
+     */
+    Letters getLetters() {
+        Letters letters = this.letters;
+        if (letters == null) {
+            letters = new Letters(value.toUpperCase());
+            this.letters = letters;
+        }
+        return letters;
     }
 
     /**
@@ -88,4 +142,48 @@ public class DictionaryWord {
     public Difficulty getDifficulty() {
         return difficulty;
     }
-}
\ No newline at end of file
+
+    /**
+     * The upper-cased characters of a word and, for each letter from A to Z, the positions where it appears.
+     * The positions of a letter are positions[letterStarts[letter]] to positions[letterStarts[letter + 1] - 1].
+     * Instances are immutable, so they can be shared between threads.
+     */
+    static final class Letters {
+        final String upperCaseValue;
+        final char[] upperCase;
+        final int[] letterStarts;
+        final int[] positions;
+        final int unguessableCount;
+
+        /**
+         * Computes the letters of an upper-cased word.
+         *
+         * @param upperCaseValue the word value in uppercase
+         */
+        Letters(String upperCaseValue) {
+            this.upperCaseValue = upperCaseValue;
+            this.upperCase = upperCaseValue.toCharArray();
+            this.letterStarts = new int[27];
+            int unguessable = 0;
+            for (char letter : upperCase) {
+                if (letter >= 'A' && letter <= 'Z') {
+                    letterStarts[letter - 'A' + 1]++;
+                } else {
+                    unguessable++;
+                }
+            }
+            for (int i = 1; i < letterStarts.length; i++) {
+                letterStarts[i] += letterStarts[i - 1];
+            }
+            this.positions = new int[upperCase.length - unguessable];
+            int[] next = letterStarts.clone();
+            for (int i = 0; i < upperCase.length; i++) {
+                char letter = upperCase[i];
+                if (letter >= 'A' && letter <= 'Z') {
+                    positions[next[letter - 'A']++] = i;
+                }
+            }
+            this.unguessableCount = unguessable;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The DifficultySimulator class measures how hard each word of a dictionary is, by playing it with guessing strategies.
+ * The words are split between the cores with a fork-join pool. Each worker reuses one game for all its words,
+ * so the simulation does not allocate per guess.
+ */
+public class DifficultySimulator {
+    /**
+     * The number of words below which a range of words is simulated by a single worker.
+     */
+    private static final int LEAF_SIZE = 1024;
+
+    private final List<GuessStrategy> strategies;
+    private final int gamesPerWord;
+    private final long seed;
+
+    /**
+     * Constructs a DifficultySimulator.
+     *
+     * @param strategies the strategies every word is played with
+     * @param gamesPerWord the number of games per word for each random strategy, deterministic ones play once
+     * @param seed the seed of the random generators, the same seed gives the same results
+     */
+    public DifficultySimulator(List<GuessStrategy> strategies, int gamesPerWord, long seed) {
+        this.strategies = strategies;
+        this.gamesPerWord = gamesPerWord;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays every word of the dictionary with every strategy.
+     *
+     * @param dictionary the dictionary to simulate
+     * @return the statistics of every word
+     */
+    public Result simulate(Dictionary dictionary) {
+        Result result = new Result();
+        List<Simulation> tasks = new ArrayList<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            DictionaryWord[] words = dictionary.getWordsByDifficulty(difficulty).toArray(new DictionaryWord[0]);
+            Statistics statistics = new Statistics(words);
+            result.statistics.put(difficulty, statistics);
+            tasks.add(new Simulation(statistics, 0, words.length, new SplittableRandom(seed + difficulty.ordinal())));
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Plays a range of words, splitting it between workers while it is larger than LEAF_SIZE.
+     */
+    private class Simulation extends RecursiveAction {
+        private final Statistics statistics;
+        private final int start;
+        private final int end;
+        private final SplittableRandom random;
+
+        Simulation(Statistics statistics, int start, int end, SplittableRandom random) {
+            this.statistics = statistics;
+            this.start = start;
+            this.end = end;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                        new Simulation(statistics, start, middle, random.split()),
+                        new Simulation(statistics, middle, end, random.split())
+                );
+                return;
+            }
+            GameSave gameSave = new GameSave(null, "simulation");
+            HangmanEngine engine = new HangmanEngine(null, gameSave);
+            for (int i = start; i < end; i++) {
+                DictionaryWord word = statistics.words[i];
+                for (GuessStrategy strategy : strategies) {
+                    int games = strategy.isDeterministic() ? 1 : gamesPerWord;
+                    for (int game = 0; game < games; game++) {
+                        engine.start(word);
+                        while (!engine.isOver()) {
+                            engine.guess(strategy.nextGuess(gameSave.getGuessedLetters(), random));
+                        }
+                        statistics.games[i]++;
+                        if (engine.isWon()) {
+                            statistics.wins[i]++;
+                        }
+                        statistics.incorrectGuesses[i] += gameSave.getIncorrectGuesses();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The statistics of the words of one difficulty level, stored in primitive arrays indexed like the words.
+     */
+    public static class Statistics {
+        private final DictionaryWord[] words;
+        private final int[] games;
+        private final int[] wins;
+        private final long[] incorrectGuesses;
+
+        Statistics(DictionaryWord[] words) {
+            this.words = words;
+            this.games = new int[words.length];
+            this.wins = new int[words.length];
+            this.incorrectGuesses = new long[words.length];
+        }
+
+        /**
+         * Gets the number of simulated words.
+         *
+         * @return the number of words
+         */
+        public int size() {
+            return words.length;
+        }
+
+        /**
+         * Gets a simulated word.
+         *
+         * @param index the position of the word
+         * @return the word
+         */
+        public DictionaryWord getWord(int index) {
+            return words[index];
+        }
+
+        /**
+         * Gets the proportion of games won with a word.
+         *
+         * @param index the position of the word
+         * @return the win rate, between 0 and 1
+         */
+        public double getWinRate(int index) {
+            return games[index] == 0 ? 0 : (double) wins[index] / games[index];
+        }
+
+        /**
+         * Gets the average number of incorrect guesses in the games played with a word.
+         *
+         * @param index the position of the word
+         * @return the average number of incorrect guesses
+         */
+        public double getAverageIncorrectGuesses(int index) {
+            return games[index] == 0 ? 0 : (double) incorrectGuesses[index] / games[index];
+        }
+    }
+
+    /**
+     * The result of a simulation, the statistics of every word by difficulty level.
+     */
+    public static class Result {
+        private final Map<Difficulty, Statistics> statistics = new EnumMap<>(Difficulty.class);
+
+        /**
+         * Gets the statistics of the words of a difficulty level.
+         *
+         * @param difficulty the difficulty level
+         * @return the statistics
+         */
+        public Statistics getStatistics(Difficulty difficulty) {
+            return statistics.get(difficulty);
+        }
+
+        /**
+         * Sorts every word into a difficulty level according to its win rate.
+         *
+         * @param easyMinWinRate the win rate from which a word is Easy
+         * @param mediumMinWinRate the win rate from which a word is Medium, the words below are Hard
+         * @return the words by difficulty level
+         */
+        public Map<Difficulty, List<DictionaryWord>> rebucket(double easyMinWinRate, double mediumMinWinRate) {
+            Map<Difficulty, List<DictionaryWord>> buckets = new EnumMap<>(Difficulty.class);
+            for (Difficulty difficulty : Difficulty.values()) {
+                buckets.put(difficulty, new ArrayList<>());
+            }
+            for (Statistics wordStatistics : statistics.values()) {
+                for (int i = 0; i < wordStatistics.size(); i++) {
+                    double winRate = wordStatistics.getWinRate(i);
+                    Difficulty difficulty = winRate >= easyMinWinRate ? Difficulty.Easy
+                            : winRate >= mediumMinWinRate ? Difficulty.Medium
+                            : Difficulty.Hard;
+                    buckets.get(difficulty).add(new DictionaryWord(wordStatistics.getWord(i).getRawValue(), difficulty));
+                }
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * Simulates the dictionary and prints the statistics of each difficulty level.
+     * With --rebucket, the words are then sorted into new difficulty levels and the dictionary is saved.
+     *
+     * @param args [gamesPerWord] [--rebucket]
+     */
+    public static void main(String[] args) {
+        int gamesPerWord = 10;
+        boolean rebucket = false;
+        for (String arg : args) {
+            if (arg.equals("--rebucket")) {
+                rebucket = true;
+            } else {
+                gamesPerWord = Integer.parseInt(arg);
+            }
+        }
+        Dictionary dictionary = new Dictionary();
+        DifficultySimulator simulator = new DifficultySimulator(
+                List.of(GuessStrategy.fixedOrder(GuessStrategy.FRENCH_FREQUENCY_ORDER), GuessStrategy.random()),
+                gamesPerWord,
+                42
+        );
+        long start = System.nanoTime();
+        Result result = simulator.simulate(dictionary);
+        long elapsed = System.nanoTime() - start;
+
+        long totalGames = 0;
+        for (Difficulty difficulty : Difficulty.values()) {
+            Statistics statistics = result.getStatistics(difficulty);
+            double winRate = 0;
+            double incorrectGuesses = 0;
+            for (int i = 0; i < statistics.size(); i++) {
+                winRate += statistics.getWinRate(i);
+                incorrectGuesses += statistics.getAverageIncorrectGuesses(i);
+                totalGames += statistics.games[i];
+            }
+            int size = Math.max(1, statistics.size());
+            System.out.printf("%-6s %9d words  win rate %5.1f%%  incorrect guesses %.2f%n",
+                    difficulty, statistics.size(), 100 * winRate / size, incorrectGuesses / size);
+        }
+        System.out.printf("%d games in %d ms with %d workers%n",
+                totalGames, elapsed / 1_000_000, ForkJoinPool.commonPool().getParallelism());
+
+        if (rebucket) {
+            dictionary.replaceWords(result.rebucket(0.75, 0.4));
+            dictionary.saveDictionary();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The FileSaveStore class keeps each save in its own file, "username.hangman.txt" in the saves folder.
+ * This is the layout the save windows browse with a file chooser.
+ */
+public class FileSaveStore implements SaveStore {
+    /**
+     * The extension of the save files. It dates from the text saves and is kept for the binary ones,
+     * so the saves of existing players are still found and converted where they are;
+     * the format of a save is told by its magic number.
+     */
+    public static final String EXTENSION = ".hangman.txt";
+
+    private final File directory;
+
+    /**
+     * Constructs a FileSaveStore keeping the saves in the specified directory.
+     *
+     * @param directory the saves folder
+     */
+    public FileSaveStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the save file of a player.
+     *
+     * @param username the username of the player
+     * @return the save file
+     */
+    public File getFile(String username) {
+        return new File(directory, username + EXTENSION);
+    }
+
+    @Override
+    public GameSave load(String username) {
+        File file = getFile(username);
+        try {
+            GameSave.createSave(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        GameSave gameSave = GameSave.loadSave(file);
+        gameSave.setStore(this);
+        return gameSave;
+    }
+
+    @Override
+    public void save(GameSave gameSave) {
+        gameSave.writeFile();
+    }
+
+    @Override
+    public File getJournalFile(String username) {
+        return new File(getFile(username).getPath() + GuessJournal.EXTENSION);
+    }
+
+    @Override
+    public boolean exists(String username) {
+        return getFile(username).isFile();
+    }
+
+    @Override
+    public List<String> listUsernames() {
+        List<String> usernames = new ArrayList<>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.endsWith(EXTENSION)) {
+                    usernames.add(name.substring(0, name.length() - EXTENSION.length()));
+                }
+            }
+        }
+        return usernames;
+    }
+}
@@ -1,19 +1,59 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * The GameSave class handles saving and loading game state for the Hangman game.
  * It manages the save file, username, word, guessed characters, and incorrect guesses.
+ * <p>
+ * Saves are stored as a versioned binary record (big-endian):
+ * <pre>
+ * int magic ("HGSV"), byte version, byte difficulty ordinal (-1 without word),
+ * int guessed letters mask, int incorrect guesses,
+ * short username length, username UTF-8 bytes, short word length, word UTF-8 bytes
+ * </pre>
+ * Saves in the legacy text format, fields separated by DELIMITER, are still loaded and converted.
+ * Binary saves keep the ".hangman.txt" name of the text saves (see FileSaveStore.EXTENSION):
+ * the format of a save is told by its magic number, not by its name.
  */
 public class GameSave {
     public static final String DELIMITER = "\u0000";
+    public static final int MAGIC = 0x48475356;
+    public static final byte VERSION = 1;
+
+    /**
+     * The size of the record without the username and word bytes.
+     */
+    private static final int RECORD_HEADER_SIZE = 4 + 1 + 1 + 4 + 4 + 2 + 2;
+
+    /**
+     * The position of the username length in the record.
+     */
+    static final int USERNAME_OFFSET = 4 + 1 + 1 + 4 + 4;
+
+    /**
+     * The maximum length in UTF-8 bytes of the username and of the word, stored as an unsigned short.
+     */
+    public static final int MAX_STRING_LENGTH = 0xFFFF;
 
     private File file;
     private String username;
     private DictionaryWord word;
-    private Collection<Character> guessedCharacters;
+    private int guessedLetters;
     private int incorrectGuesses;
+    private HiddenWord hiddenWord;
+    private byte[] encodedUsername;
+    private DictionaryWord encodedWordSource;
+    private byte[] encodedWord;
+    private ByteBuffer recordBuffer;
+    private SaveStore store;
+    private GuessJournal journal;
 
     /**
      * Constructs a GameSave object with the specified file and username.
@@ -24,7 +64,7 @@ public class GameSave {
     public GameSave(File file, String username) {
         this.file = file;
         this.username = username;
-        this.guessedCharacters = new ArrayList<>();
+        this.guessedLetters = 0;
         this.incorrectGuesses = 0;
     }
 
@@ -38,11 +78,26 @@ public class GameSave {
      * @param incorrectGuesses the number of incorrect guesses
      */
     public GameSave(File file, String username, DictionaryWord word, Collection<Character> guessedCharacters, int incorrectGuesses) {
+        this(file, username, word, LetterMask.of(guessedCharacters), incorrectGuesses);
+    }
+
+    /**
+     * Constructs a GameSave object with the specified parameters.
+     *
+     * @param file the save file
+     * @param username the username
+     * @param word the dictionary word
+     * @param guessedLetters the mask of the guessed letters
+     * @param incorrectGuesses the number of incorrect guesses
+     * @see LetterMask
+     */
+    public GameSave(File file, String username, DictionaryWord word, int guessedLetters, int incorrectGuesses) {
         this.file = file;
         this.username = username;
         this.word = word;
-        this.guessedCharacters = guessedCharacters;
+        this.guessedLetters = guessedLetters;
         this.incorrectGuesses = incorrectGuesses;
+        refreshHiddenWord();
     }
 
     /**
@@ -58,36 +113,191 @@ public class GameSave {
 
     /**
      * Loads a game save from the specified file.
+     * A save in the legacy text format is converted to the binary format.
      *
      * @param file the save file
      * @return the loaded GameSave object
      */
     public static GameSave loadSave(File file) {
-        try {
-            Scanner scanner = new Scanner(file);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full
+            }
+            buffer.flip();
+            if (buffer.remaining() >= 4 && buffer.getInt(0) == MAGIC) {
+                GameSave gameSave = readRecord(file, buffer);
+                gameSave.replayJournal();
+                return gameSave;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        GameSave gameSave = loadLegacySave(file);
+        if (gameSave.getWord() != null) {
+            gameSave.saveFile();
+        }
+        return gameSave;
+    }
+
+    /**
+     * Loads a game save from a file in the legacy text format.
+     *
+     * @param file the save file
+     * @return the loaded GameSave object
+     */
+    private static GameSave loadLegacySave(File file) {
+        try (Scanner scanner = new Scanner(file)) {
             scanner.useDelimiter(DELIMITER);
             String username = scanner.next();
             String wordValue = scanner.next();
             String difficulty = scanner.next();
             String guessedCharactersValue = scanner.next();
             int incorrectGuesses = scanner.nextInt();
+            int guessedLetters = 0;
+            for (int i = 0; i < guessedCharactersValue.length(); i++) {
+                guessedLetters |= LetterMask.of(guessedCharactersValue.charAt(i));
+            }
             return new GameSave(
                     file,
                     username,
                     new DictionaryWord(wordValue, Difficulty.valueOf(difficulty)),
-                    guessedCharactersValue.isEmpty() ?
-                            new ArrayList<>() :
-                            Arrays.stream(guessedCharactersValue.split(":"))
-                                    .map(str -> str.charAt(0)).collect(Collectors.toList()),
+                    guessedLetters,
                     incorrectGuesses
             );
         } catch (NoSuchElementException e) {
-            return new GameSave(file, file.getName().substring(0, file.getName().length() - 12));
+            return new GameSave(file, file.getName().substring(0, file.getName().length() - FileSaveStore.EXTENSION.length()));
         } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Reads a game save from a binary record.
+     *
+     * @param file the save file the record belongs to
+     * @param buffer the buffer positioned at the start of the record
+     * @return the read GameSave object
+     * @throws IOException if the buffer does not contain a supported record
+     */
+    public static GameSave readRecord(File file, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < RECORD_HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a save record");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save record version: " + version);
+        }
+        byte difficulty = buffer.get();
+        if (difficulty < -1 || difficulty >= Difficulty.values().length) {
+            throw new IOException("Invalid difficulty in save record: " + difficulty);
+        }
+        int guessedLetters = buffer.getInt();
+        int incorrectGuesses = buffer.getInt();
+        String username = readString(buffer);
+        String wordValue = readString(buffer);
+        DictionaryWord word = difficulty < 0 ? null : new DictionaryWord(wordValue, Difficulty.values()[difficulty]);
+        return new GameSave(file, username, word, guessedLetters, incorrectGuesses);
+    }
+
+    /**
+     * Reads a string stored as its UTF-8 length followed by its bytes.
+     *
+     * @param buffer the buffer positioned at the length
+     * @return the string
+     * @throws IOException if the record ends before the string
+     */
+    private static String readString(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 2) {
+            throw new IOException("Truncated save record");
+        }
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new IOException("Truncated save record");
+        }
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the game state as a binary record.
+     *
+     * @param buffer the buffer to write into, with at least getRecordSize() bytes remaining
+     * @throws IllegalArgumentException if the username or the word is longer than MAX_STRING_LENGTH bytes
+     */
+    public void writeRecord(ByteBuffer buffer) {
+        byte[] usernameBytes = getEncodedUsername();
+        byte[] wordBytes = getEncodedWord();
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put(word == null ? -1 : (byte) word.getDifficulty().ordinal());
+        buffer.putInt(guessedLetters);
+        buffer.putInt(incorrectGuesses);
+        buffer.putShort((short) usernameBytes.length);
+        buffer.put(usernameBytes);
+        buffer.putShort((short) wordBytes.length);
+        buffer.put(wordBytes);
+    }
+
+    /**
+     * Gets the size of the binary record of the game state.
+     *
+     * @return the size of the record in bytes
+     * @throws IllegalArgumentException if the username or the word is longer than MAX_STRING_LENGTH bytes
+     */
+    public int getRecordSize() {
+        return RECORD_HEADER_SIZE + getEncodedUsername().length + getEncodedWord().length;
+    }
+
+    /**
+     * Gets the UTF-8 bytes of the username, encoded once.
+     *
+     * @return the encoded username
+     */
+    private byte[] getEncodedUsername() {
+        if (encodedUsername == null) {
+            encodedUsername = checkLength(username.getBytes(StandardCharsets.UTF_8), "Username");
+        }
+        return encodedUsername;
+    }
+
+    /**
+     * Gets the UTF-8 bytes of the word, encoded once per word.
+     *
+     * @return the encoded word, empty without word
+     */
+    private byte[] getEncodedWord() {
+        if (word == null) {
+            return new byte[0];
+        }
+        if (encodedWordSource != word) {
+            encodedWord = checkLength(word.getRawValue().getBytes(StandardCharsets.UTF_8), "Word");
+            encodedWordSource = word;
+        }
+        return encodedWord;
+    }
+
+    /**
+     * Checks that a string of the record fits in its unsigned short length.
+     *
+     * @param bytes the UTF-8 bytes of the string
+     * @param name the name of the string, for the error message
+     * @return the bytes
+     * @throws IllegalArgumentException if the string is longer than MAX_STRING_LENGTH bytes
+     */
+    private static byte[] checkLength(byte[] bytes, String name) {
+        if (bytes.length > MAX_STRING_LENGTH) {
+            throw new IllegalArgumentException(name + " too long for a save record: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
     /**
      * Creates the save folder if it does not exist.
      */
@@ -97,28 +307,71 @@ public class GameSave {
     }
 
     /**
-     * Saves the current game state to the file.
+     * Saves the current game state to its store, or to the file when the save has no store.
      */
     public void saveFile() {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        stringBuilder.append(username);
-        stringBuilder.append(DELIMITER);
-        stringBuilder.append(word.toString());
-        stringBuilder.append(DELIMITER);
-        stringBuilder.append(word.getDifficulty());
-        stringBuilder.append(DELIMITER);
-        stringBuilder.append(guessedCharacters.stream().map(String::valueOf).collect(Collectors.joining(":")));
-        stringBuilder.append(DELIMITER);
-        stringBuilder.append(incorrectGuesses);
-
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            fileWriter.write(stringBuilder.toString());
+        if (store != null) {
+            store.save(this);
+        } else {
+            writeFile();
+        }
+        if (journal != null) {
+            journal.checkpoint(word, guessedLetters);
+        }
+    }
+
+    /**
+     * Saves the current game state in the background, without blocking the calling thread.
+     *
+     * @see SaveWriter
+     */
+    public void saveFileAsync() {
+        SaveWriter.getInstance().submit(this);
+    }
+
+    /**
+     * Writes the current game state to the file.
+     * The record is written to a temporary file which then replaces the save file,
+     * so an interrupted write never leaves a half-written save.
+     */
+    public void writeFile() {
+        int recordSize = getRecordSize();
+        if (recordBuffer == null || recordBuffer.capacity() < recordSize) {
+            recordBuffer = ByteBuffer.allocate(recordSize);
+        }
+        recordBuffer.clear();
+        writeRecord(recordBuffer);
+        recordBuffer.flip();
+        Path path = file.toPath();
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryPath,
+                    StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (recordBuffer.hasRemaining()) {
+                    channel.write(recordBuffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Copies the game state, later changes of this save are not visible in the copy.
+     * The copy shares the guess journal of the save.
+     *
+     * @return a copy of the save, kept in the same file and store
+     */
+    public GameSave copy() {
+        GameSave copy = new GameSave(file, username, word, guessedLetters, incorrectGuesses);
+        copy.store = store;
+        copy.journal = journal;
+        copy.encodedUsername = encodedUsername;
+        return copy;
+    }
+
     /**
      * Gets the username.
      *
@@ -137,6 +390,80 @@ public class GameSave {
         this.word = word;
         clearGuessedCharacters();
         setIncorrectGuesses(0);
+        GuessJournal journal = getJournal();
+        if (journal != null) {
+            journal.reset(word);
+        }
+    }
+
+    /**
+     * Records a guess of a letter not guessed yet, counting it as incorrect when the word does not contain it.
+     * The guess is appended to the journal of the save, and the save is written in the background
+     * once CHECKPOINT_INTERVAL guesses have been journaled.
+     *
+     * @param letter the guessed letter
+     * @see GuessJournal
+     */
+    public void recordGuess(char letter) {
+        applyGuess(letter);
+        GuessJournal journal = getJournal();
+        if (journal != null && journal.append(word, letter) >= GuessJournal.CHECKPOINT_INTERVAL) {
+            saveFileAsync();
+        }
+    }
+
+    /**
+     * Applies a guess to the game state, without journaling it. A letter already guessed is ignored.
+     *
+     * @param letter the guessed letter
+     */
+    void applyGuess(char letter) {
+        if (addGuessedCharacter(letter) && !word.containsLetter(letter)) {
+            incorrectGuesses++;
+        }
+    }
+
+    /**
+     * Replays the guesses journaled since the save was last written.
+     */
+    public void replayJournal() {
+        GuessJournal journal = getJournal();
+        if (journal != null) {
+            journal.replay(this);
+        }
+    }
+
+    /**
+     * Gets the guess journal of the save, kept next to the save file or in the save store.
+     *
+     * @return the guess journal, or null if the save is neither in a file nor in a store
+     */
+    private GuessJournal getJournal() {
+        if (journal == null) {
+            if (store != null) {
+                journal = new GuessJournal(store.getJournalFile(username));
+            } else if (file != null) {
+                journal = new GuessJournal(new File(file.getPath() + GuessJournal.EXTENSION));
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Releases the guess journal file of the save, when the game is left. A later guess opens it again.
+     */
+    public void close() {
+        closeJournal();
+    }
+
+    /**
+     * Closes the guess journal, so the next guess is journaled at the new location of the save.
+     */
+    private void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
     }
 
     /**
@@ -164,15 +491,40 @@ public class GameSave {
      */
     public void setWord(DictionaryWord word) {
         this.word = word;
+        refreshHiddenWord();
+    }
+
+    /**
+     * Rebuilds the rendering of the hidden word from the word and the guessed letters.
+     */
+    private void refreshHiddenWord() {
+        if (word == null) {
+            hiddenWord = null;
+        } else if (hiddenWord == null) {
+            hiddenWord = new HiddenWord(word, guessedLetters);
+        } else {
+            hiddenWord.reset(word, guessedLetters);
+        }
     }
 
     /**
      * Gets the collection of guessed characters.
+     * The collection is a view of the guessed letters mask, changes to one are visible in the other.
      *
      * @return the collection of guessed characters
      */
     public Collection<Character> getGuessedCharacters() {
-        return guessedCharacters;
+        return new GuessedCharacters();
+    }
+
+    /**
+     * Gets the mask of the guessed letters.
+     *
+     * @return the mask of the guessed letters
+     * @see LetterMask
+     */
+    public int getGuessedLetters() {
+        return guessedLetters;
     }
 
     /**
@@ -181,14 +533,33 @@ public class GameSave {
      * @return the hidden value of the word
      */
     public String getHiddenValue() {
-        return word.getHiddenValue(guessedCharacters);
+        return hiddenWord.toString();
+    }
+
+    /**
+     * Checks if every letter of the word has been guessed.
+     *
+     * @return true if the word is fully revealed, false otherwise
+     */
+    public boolean isWordGuessed() {
+        return hiddenWord.isRevealed();
+    }
+
+    /**
+     * Gets the number of letters of the word which are still hidden.
+     *
+     * @return the number of hidden letters
+     */
+    public int getRemainingLetters() {
+        return hiddenWord.getRemainingLetters();
     }
 
     /**
      * Clears the collection of guessed characters.
      */
     public void clearGuessedCharacters() {
-        guessedCharacters.clear();
+        guessedLetters = 0;
+        refreshHiddenWord();
     }
 
     /**
@@ -198,7 +569,15 @@ public class GameSave {
      * @return true if the character was added, false otherwise
      */
     public boolean addGuessedCharacter(Character character) {
-        return guessedCharacters.add(character);
+        int bit = LetterMask.of(character);
+        if ((guessedLetters & bit) == bit) {
+            return false;
+        }
+        guessedLetters |= bit;
+        if (hiddenWord != null) {
+            hiddenWord.reveal(character);
+        }
+        return true;
     }
 
     /**
@@ -208,7 +587,7 @@ public class GameSave {
      * @return true if the character has been guessed, false otherwise
      */
     public boolean isCharacterGuessed(Character character) {
-        return guessedCharacters.contains(character);
+        return LetterMask.contains(guessedLetters, character);
     }
 
     /**
@@ -252,5 +631,93 @@ public class GameSave {
      */
     public void setFile(File file) {
         this.file = file;
+        closeJournal();
+    }
+
+    /**
+     * Gets the store the save is kept in.
+     *
+     * @return the save store, or null if the save is only written to its file
+     */
+    public SaveStore getStore() {
+        return store;
+    }
+
+    /**
+     * Sets the store the save is kept in.
+     *
+     * @param store the save store, or null to only write the save to its file
+     */
+    public void setStore(SaveStore store) {
+        this.store = store;
+        closeJournal();
+    }
+
+    /**
+     * The collection view of the guessed letters mask, in alphabetical order.
+     */
+    private class GuessedCharacters extends AbstractSet<Character> {
+        @Override
+        public Iterator<Character> iterator() {
+            return new Iterator<>() {
+                private int remaining = guessedLetters;
+                private int lastIndex = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Character next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    lastIndex = Integer.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return LetterMask.letterAt(lastIndex);
+                }
+
+                @Override
+                public void remove() {
+                    if (lastIndex < 0) {
+                        throw new IllegalStateException();
+                    }
+                    guessedLetters &= ~(1 << lastIndex);
+                    lastIndex = -1;
+                    refreshHiddenWord();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(guessedLetters);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Character character && isCharacterGuessed(character);
+        }
+
+        @Override
+        public boolean add(Character character) {
+            return addGuessedCharacter(character);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            guessedLetters &= ~LetterMask.of((Character) o);
+            refreshHiddenWord();
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            clearGuessedCharacters();
+        }
     }
-}
\ No newline at end of file
+}
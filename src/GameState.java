@@ -0,0 +1,32 @@
+/**
+ * The GameState record is an immutable snapshot of a Hangman game, as returned by the HangmanEngine.
+ *
+ * @param username the username of the player
+ * @param hiddenValue the word with the letters not yet guessed hidden
+ * @param difficulty the difficulty level of the word
+ * @param guessedLetters the mask of the guessed letters
+ * @param incorrectGuesses the number of incorrect guesses
+ * @param remainingLetters the number of letters still hidden
+ * @param won true if the word has been fully guessed
+ * @param lost true if the maximum number of incorrect guesses has been reached
+ * @see LetterMask
+ */
+public record GameState(
+        String username,
+        String hiddenValue,
+        Difficulty difficulty,
+        int guessedLetters,
+        int incorrectGuesses,
+        int remainingLetters,
+        boolean won,
+        boolean lost
+) {
+    /**
+     * Checks whether the game is over.
+     *
+     * @return true if the game is won or lost, false otherwise
+     */
+    public boolean isOver() {
+        return won || lost;
+    }
+}
@@ -0,0 +1,242 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The GuessJournal class is the write-ahead journal of the guesses of a game save.
+ * Each guess is appended to the journal as two bytes and forced to the disk before recording it returns,
+ * so it survives a crash or a power loss without rewriting the save,
+ * and the save itself only needs to be written every CHECKPOINT_INTERVAL guesses.
+ * When a save is loaded, the guesses of its journal are replayed on top of it. An entry torn by a crash
+ * during its append fails its checksum or is cut short, and is ignored with anything after it.
+ * <p>
+ * Layout (big-endian): int magic "HGJN", int hash of the word being guessed,
+ * then one entry per guess: byte letter (A to Z), byte checksum of the letter.
+ * A letter is guessed at most once per word, so replaying a guess already in the save changes nothing:
+ * the journal and the save never have to be written in step.
+ */
+public class GuessJournal {
+    public static final int MAGIC = 0x48474A4E;
+    public static final String EXTENSION = ".journal";
+
+    /**
+     * The number of journaled guesses after which the save is written again.
+     */
+    public static final int CHECKPOINT_INTERVAL = 8;
+
+    private static final int HEADER_SIZE = 4 + 4;
+    private static final int ENTRY_SIZE = 2;
+
+    private final File file;
+    private final ByteBuffer entryBuffer;
+    private FileChannel channel;
+    private int wordHash;
+    private int entryCount;
+
+    /**
+     * Constructs a GuessJournal kept in the specified file. The file is only opened when a guess is journaled.
+     *
+     * @param file the journal file
+     */
+    public GuessJournal(File file) {
+        this.file = file;
+        this.entryBuffer = ByteBuffer.allocate(HEADER_SIZE);
+    }
+
+    /**
+     * Replays the journaled guesses on a save, if the journal belongs to the word of the save.
+     * Reading stops at the first entry which was not completely written, such as a trailing entry torn by a crash.
+     *
+     * @param gameSave the save loaded from its last checkpoint
+     */
+    public synchronized void replay(GameSave gameSave) {
+        if (gameSave.getWord() == null) {
+            return;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != hash(gameSave.getWord())) {
+            return;
+        }
+        int count = countValidEntries(buffer);
+        for (int i = 0; i < count; i++) {
+            gameSave.applyGuess((char) buffer.get(HEADER_SIZE + i * ENTRY_SIZE));
+        }
+    }
+
+    /**
+     * Starts an empty journal for a new word.
+     *
+     * @param word the new word
+     */
+    public synchronized void reset(DictionaryWord word) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            }
+            writeHeader(word);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Appends a guess to the journal, and waits until it is on the disk.
+     *
+     * @param word the word being guessed
+     * @param letter the guessed letter
+     * @return the number of guesses in the journal
+     */
+    public synchronized int append(DictionaryWord word, char letter) {
+        try {
+            open(word);
+            byte value = (byte) Character.toUpperCase(letter);
+            entryBuffer.clear();
+            entryBuffer.put(value).put(checksum(value)).flip();
+            channel.write(entryBuffer, HEADER_SIZE + (long) entryCount * ENTRY_SIZE);
+            channel.force(false);
+            return ++entryCount;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Removes from the journal the guesses included in a written save.
+     * The guesses made after the state of the save was taken stay in the journal.
+     *
+     * @param word the word of the written save
+     * @param guessedLetters the mask of the guessed letters of the written save
+     */
+    public synchronized void checkpoint(DictionaryWord word, int guessedLetters) {
+        if (channel == null || word == null || hash(word) != wordHash) {
+            return;
+        }
+        try {
+            ByteBuffer entries = ByteBuffer.allocate(entryCount * ENTRY_SIZE);
+            while (entries.hasRemaining() && channel.read(entries, HEADER_SIZE + entries.position()) >= 0) {
+                // read until the buffer is full
+            }
+            int kept = 0;
+            for (int i = 0; i < entryCount; i++) {
+                byte value = entries.get(i * ENTRY_SIZE);
+                if (!LetterMask.contains(guessedLetters, (char) value)) {
+                    entries.put(kept * ENTRY_SIZE, value).put(kept * ENTRY_SIZE + 1, checksum(value));
+                    kept++;
+                }
+            }
+            if (kept > 0) {
+                channel.write(entries.position(0).limit(kept * ENTRY_SIZE), HEADER_SIZE);
+            }
+            channel.truncate(HEADER_SIZE + (long) kept * ENTRY_SIZE);
+            entryCount = kept;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Closes the journal file.
+     */
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+    }
+
+    /**
+     * Opens the journal file to append guesses of a word, keeping the valid guesses already journaled for this word.
+     *
+     * @param word the word being guessed
+     * @throws IOException if an I/O error occurs
+     */
+    private void open(DictionaryWord word) throws IOException {
+        if (channel != null && wordHash == hash(word)) {
+            return;
+        }
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // read until the buffer is full
+        }
+        if (buffer.capacity() >= HEADER_SIZE && buffer.getInt(0) == MAGIC && buffer.getInt(4) == hash(word)) {
+            wordHash = hash(word);
+            entryCount = countValidEntries(buffer);
+            channel.truncate(HEADER_SIZE + (long) entryCount * ENTRY_SIZE);
+        } else {
+            writeHeader(word);
+        }
+    }
+
+    /**
+     * Empties the journal file and writes its header.
+     *
+     * @param word the word being guessed
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeHeader(DictionaryWord word) throws IOException {
+        wordHash = hash(word);
+        entryCount = 0;
+        channel.truncate(0);
+        entryBuffer.clear();
+        entryBuffer.putInt(MAGIC).putInt(wordHash).flip();
+        channel.write(entryBuffer, 0);
+    }
+
+    /**
+     * Counts the entries following the header, up to the first invalid one.
+     *
+     * @param buffer the content of the journal file
+     * @return the number of valid entries
+     */
+    private static int countValidEntries(ByteBuffer buffer) {
+        int count = 0;
+        for (int position = HEADER_SIZE; position + ENTRY_SIZE <= buffer.limit(); position += ENTRY_SIZE) {
+            byte value = buffer.get(position);
+            if (value < 'A' || value > 'Z' || buffer.get(position + 1) != checksum(value)) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Computes the checksum of a journaled letter, which tells a written entry from a torn or zeroed one.
+     *
+     * @param value the letter
+     * @return the checksum
+     */
+    private static byte checksum(byte value) {
+        return (byte) (value * 0x9D ^ 0x5A);
+    }
+
+    /**
+     * Computes the hash identifying the word a journal belongs to.
+     *
+     * @param word the word
+     * @return the hash of the word
+     */
+    private static int hash(DictionaryWord word) {
+        return word.getRawValue().hashCode() * 31 + word.getDifficulty().ordinal();
+    }
+}
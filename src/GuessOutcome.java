@@ -0,0 +1,33 @@
+/**
+ * The GuessOutcome enum represents the result of guessing a letter in a Hangman game.
+ */
+public enum GuessOutcome {
+    /**
+     * The word contains the letter, the game goes on.
+     */
+    HIT,
+    /**
+     * The word does not contain the letter, the game goes on.
+     */
+    MISS,
+    /**
+     * The letter completed the word, the game is won.
+     */
+    WON,
+    /**
+     * The letter was the last incorrect guess allowed, the game is lost.
+     */
+    LOST,
+    /**
+     * The letter had already been guessed, nothing changed.
+     */
+    ALREADY_GUESSED,
+    /**
+     * The character is not a letter from A to Z, nothing changed.
+     */
+    INVALID,
+    /**
+     * The game is already won or lost, nothing changed.
+     */
+    GAME_OVER
+}
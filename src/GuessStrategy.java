@@ -0,0 +1,93 @@
+import java.util.SplittableRandom;
+
+/**
+ * The GuessStrategy interface represents a way of choosing the next letter to guess in a simulated game.
+ * Implementations must not allocate and must be safe to share between threads,
+ * any randomness comes from the random generator of the calling thread.
+ */
+public interface GuessStrategy {
+    /**
+     * The letters sorted by decreasing frequency in French words.
+     */
+    String FRENCH_FREQUENCY_ORDER = "EASITNRULODCPMVQFBGHJXYZKW";
+
+    /**
+     * Chooses the next letter to guess.
+     *
+     * @param guessedLetters the mask of the letters already guessed
+     * @param random the random generator of the calling thread
+     * @return the letter to guess, which must not have been guessed yet
+     * @see LetterMask
+     */
+    char nextGuess(int guessedLetters, SplittableRandom random);
+
+    /**
+     * Checks whether the strategy always plays the same game for the same word.
+     *
+     * @return true if the strategy does not use the random generator, false otherwise
+     */
+    default boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * Gets the name of the strategy, used in reports.
+     *
+     * @return the name of the strategy
+     */
+    String getName();
+
+    /**
+     * Creates a strategy guessing the letters in a fixed order.
+     *
+     * @param order the 26 letters in the order they are guessed
+     * @return the strategy
+     */
+    static GuessStrategy fixedOrder(String order) {
+        char[] letters = order.toUpperCase().toCharArray();
+        return new GuessStrategy() {
+            @Override
+            public char nextGuess(int guessedLetters, SplittableRandom random) {
+                for (char letter : letters) {
+                    if (!LetterMask.contains(guessedLetters, letter)) {
+                        return letter;
+                    }
+                }
+                throw new IllegalStateException("Every letter has already been guessed");
+            }
+
+            @Override
+            public String getName() {
+                return "order " + order;
+            }
+        };
+    }
+
+    /**
+     * Creates a strategy guessing a random letter among the ones not guessed yet.
+     *
+     * @return the strategy
+     */
+    static GuessStrategy random() {
+        return new GuessStrategy() {
+            @Override
+            public char nextGuess(int guessedLetters, SplittableRandom random) {
+                int remaining = LetterMask.ALL_LETTERS & ~guessedLetters;
+                for (int skipped = random.nextInt(Integer.bitCount(remaining)); skipped > 0; skipped--) {
+                    remaining &= remaining - 1;
+                }
+                return LetterMask.letterAt(Integer.numberOfTrailingZeros(remaining));
+            }
+
+            @Override
+            public boolean isDeterministic() {
+                return false;
+            }
+
+            @Override
+            public String getName() {
+                return "random";
+            }
+        };
+    }
+}
@@ -8,11 +8,12 @@ import java.awt.event.ActionListener;
  * It handles the game logic, user interactions, and GUI components.
  */
 public class Hangman extends JFrame implements ActionListener {
-    private final Dictionary dictionary;
+    private final HangmanEngine engine;
     private JImageResourceLabel hangmanImage;
     private JLabel hiddenWordLabel;
     private final JButton[] letterButtons;
     private final GameSave gameSave;
+    private AdaptiveWordPicker adaptivePicker;
 
     /**
      * Gets the username of the current game save.
@@ -39,7 +40,7 @@ public class Hangman extends JFrame implements ActionListener {
         getContentPane().setBackground(Color.BLACK);
 
         this.gameSave = gameSave;
-        dictionary = new Dictionary();
+        engine = new HangmanEngine(Dictionary.getShared(), gameSave);
         letterButtons = new JButton[26];
 
         if (gameSave.getWord() == null) {
@@ -59,6 +60,7 @@ public class Hangman extends JFrame implements ActionListener {
         SwingUtilities.invokeLater(() -> {
             Hangman hangman = new Hangman(gameSave);
             hangman.setVisible(true);
+            Startup.mark("game window shown");
         });
     }
 
@@ -69,39 +71,44 @@ public class Hangman extends JFrame implements ActionListener {
         JMenuBar menuBar = new JMenuBar();
         JMenu menu = new JMenu("Menu");
         JMenuItem adminMenuItem = new JMenuItem("Admin");
+        JMenuItem leaderboardMenuItem = new JMenuItem("Leaderboard");
         JMenuItem aboutMenuItem = new JMenuItem("About this game");
 
         // Customize font
         Font font = new Font("Arial", Font.BOLD, 20);
         menu.setFont(font);
         adminMenuItem.setFont(font);
+        leaderboardMenuItem.setFont(font);
         aboutMenuItem.setFont(font);
 
         // Customize color
         menu.setForeground(Color.WHITE);
         adminMenuItem.setForeground(Color.DARK_GRAY);
         adminMenuItem.setBackground(Color.GRAY);
+        leaderboardMenuItem.setForeground(Color.DARK_GRAY);
+        leaderboardMenuItem.setBackground(Color.GRAY);
         aboutMenuItem.setForeground(Color.DARK_GRAY);
         aboutMenuItem.setBackground(Color.GRAY);
 
         // Add admin icon
-        ImageIcon adminIcon = new ImageIcon(getClass().getResource("/images/Admin.png"));
-        Image image = adminIcon.getImage();
-        Image scaledImage = image.getScaledInstance(25, 25, Image.SCALE_SMOOTH);
-        adminIcon = new ImageIcon(scaledImage);
-        adminMenuItem.setIcon(adminIcon);
+        adminMenuItem.setIcon(ImageCache.getScaledIcon(ImageCache.ADMIN_ICON_PATH, ImageCache.ADMIN_ICON_SIZE, ImageCache.ADMIN_ICON_SIZE));
 
         adminMenuItem.addActionListener(e -> {
-            gameSave.saveFile();
+            gameSave.saveFileAsync();
             AdminOptions.openWindow();
             dispose();
         });
 
+        leaderboardMenuItem.addActionListener(e -> {
+            LeaderboardWindow.openWindow(getUsername());
+        });
+
         aboutMenuItem.addActionListener(e -> {
             AboutWindow.openWindow();
         });
 
         menu.add(adminMenuItem);
+        menu.add(leaderboardMenuItem);
         menu.add(aboutMenuItem);
         menuBar.add(menu);
         setJMenuBar(menuBar);
@@ -113,10 +120,10 @@ public class Hangman extends JFrame implements ActionListener {
     /**
      * Prompts the user to choose a difficulty level.
      *
-     * @return the chosen difficulty level
+     * @return the chosen difficulty level, or null to pick a word matching the results of the player
      */
     private Difficulty chooseDifficulty() {
-        String[] options = {"1 - Easy", "2 - Medium", "3 - Hard"};
+        String[] options = {"1 - Easy", "2 - Medium", "3 - Hard", "4 - Adaptive"};
         int choice = JOptionPane.showOptionDialog(this, "Choose difficulty level:", "Difficulty",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
 
@@ -128,6 +135,7 @@ public class Hangman extends JFrame implements ActionListener {
             case 0 -> Difficulty.Easy;
             case 1 -> Difficulty.Medium;
             case 2 -> Difficulty.Hard;
+            case 3 -> null;
             default -> throw new IllegalStateException("Unexpected value: " + choice);
         };
     }
@@ -136,7 +144,7 @@ public class Hangman extends JFrame implements ActionListener {
      * Adds the GUI components to the window.
      */
     private void addGuiComponents() {
-        hangmanImage = new JImageResourceLabel("/images/" + (gameSave.getIncorrectGuesses() + 1) + ".png");
+        hangmanImage = new JImageResourceLabel(ImageCache.getHangmanImagePath(gameSave.getIncorrectGuesses()));
         hangmanImage.setBounds(0, 0, hangmanImage.getPreferredSize().width, hangmanImage.getPreferredSize().height);
 
         hiddenWordLabel = new JLabel(gameSave.getHiddenValue());
@@ -226,7 +234,7 @@ public class Hangman extends JFrame implements ActionListener {
                 openSaveWindow.setVisible(true);
                 break;
             case "Admin":
-                gameSave.saveFile();
+                gameSave.saveFileAsync();
                 AdminOptions.openWindow();
                 dispose();
                 break;
@@ -244,24 +252,45 @@ public class Hangman extends JFrame implements ActionListener {
      */
     private void handleLetterButton(char letter, JButton clickedButton) {
         clickedButton.setEnabled(false);
-        gameSave.addGuessedCharacter(letter);
+        GuessOutcome outcome = engine.guess(letter);
         updateHiddenWord();
-        if (gameSave.getWord().containsLetter(letter)) {
-            clickedButton.setBackground(Color.GREEN);
-            if (!hiddenWordLabel.getText().contains("_")) {
+        switch (outcome) {
+            case HIT -> clickedButton.setBackground(Color.GREEN);
+            case WON -> {
+                clickedButton.setBackground(Color.GREEN);
                 hiddenWordLabel.setForeground(Color.GREEN);
+                recordRound(true);
                 JOptionPane.showMessageDialog(this, getUsername() + ", You won!");
                 resetGame();
             }
-        } else {
-            clickedButton.setBackground(Color.RED);
-            gameSave.incrementIncorrectGuess();
-            hangmanImage.setImageResourcePath("/images/" + (gameSave.getIncorrectGuesses() + 1) + ".png");
-            if (gameSave.getIncorrectGuesses() == 6) {
+            case MISS -> {
+                clickedButton.setBackground(Color.RED);
+                hangmanImage.setImageResourcePath(ImageCache.getHangmanImagePath(gameSave.getIncorrectGuesses()));
+            }
+            case LOST -> {
+                clickedButton.setBackground(Color.RED);
+                hangmanImage.setImageResourcePath(ImageCache.getHangmanImagePath(gameSave.getIncorrectGuesses()));
                 hiddenWordLabel.setForeground(Color.RED);
+                recordRound(false);
                 JOptionPane.showMessageDialog(this, "You lost! The word was: " + gameSave.getWord().getRawValue());
                 resetGame();
             }
+            default -> {
+                // the guess was ignored by the engine
+            }
+        }
+    }
+
+    /**
+     * Records the result of the finished round in the statistics of its word and in the leaderboard.
+     *
+     * @param won true if the word was found
+     */
+    private void recordRound(boolean won) {
+        WordStatistics.getShared().recordRound(gameSave.getWord(), won, gameSave.getIncorrectGuesses());
+        Leaderboard.getShared().recordRound(getUsername(), won);
+        if (adaptivePicker != null) {
+            adaptivePicker.recordResult(won);
         }
     }
 
@@ -277,10 +306,15 @@ public class Hangman extends JFrame implements ActionListener {
      */
     private void resetGame() {
         Difficulty difficulty = chooseDifficulty();
-        gameSave.setWord(dictionary.pickRandomWord(difficulty));
-        gameSave.clearGuessedCharacters();
-        gameSave.setIncorrectGuesses(0);
-        gameSave.saveFile();
+        if (difficulty != null) {
+            engine.start(difficulty);
+        } else {
+            if (adaptivePicker == null) {
+                adaptivePicker = new AdaptiveWordPicker(WordStatistics.getShared().getSampler(engine.getDictionary()));
+            }
+            engine.start(adaptivePicker.pick());
+        }
+        gameSave.saveFileAsync();
         if (hiddenWordLabel != null) {
             updateHiddenWord();
             resetUI();
@@ -291,7 +325,7 @@ public class Hangman extends JFrame implements ActionListener {
      * Resets the UI components to their initial state.
      */
     private void resetUI() {
-        hangmanImage.setImageResourcePath("/images/1.png");
+        hangmanImage.setImageResourcePath(ImageCache.getHangmanImagePath(0));
         hiddenWordLabel.setForeground(Color.WHITE);
         for (JButton letterButton : letterButtons) {
             letterButton.setEnabled(true);
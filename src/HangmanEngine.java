@@ -0,0 +1,144 @@
+/**
+ * The HangmanEngine class holds the rules of the Hangman game, independently of any user interface.
+ * It plays on a GameSave, picking the words from a Dictionary.
+ * A guess does not allocate, so many games can be simulated without a display.
+ */
+public class HangmanEngine {
+    /**
+     * The number of incorrect guesses after which the game is lost.
+     */
+    public static final int MAX_INCORRECT_GUESSES = 6;
+
+    private final Dictionary dictionary;
+    private final GameSave gameSave;
+    private final WordPicker wordPicker;
+
+    /**
+     * Constructs a HangmanEngine playing on the specified game save.
+     * The player gets every word of a difficulty once before getting any word again.
+     *
+     * @param dictionary the dictionary the words are picked from
+     * @param gameSave the game save holding the state of the game
+     */
+    public HangmanEngine(Dictionary dictionary, GameSave gameSave) {
+        this(dictionary, gameSave, new WordPicker(dictionary, true));
+    }
+
+    /**
+     * Constructs a HangmanEngine playing on the specified game save, with the specified word picker.
+     *
+     * @param dictionary the dictionary the words are picked from
+     * @param gameSave the game save holding the state of the game
+     * @param wordPicker the picker of the words of the new games, for example a seeded one to replay games
+     */
+    public HangmanEngine(Dictionary dictionary, GameSave gameSave, WordPicker wordPicker) {
+        this.dictionary = dictionary;
+        this.gameSave = gameSave;
+        this.wordPicker = wordPicker;
+    }
+
+    /**
+     * Starts a new game with a random word of the specified difficulty.
+     *
+     * @param difficulty the difficulty level of the word
+     */
+    public void start(Difficulty difficulty) {
+        start(wordPicker.pick(difficulty));
+    }
+
+    /**
+     * Starts a new game with the specified word.
+     *
+     * @param word the word to guess
+     */
+    public void start(DictionaryWord word) {
+        gameSave.reset(word);
+    }
+
+    /**
+     * Guesses a letter.
+     *
+     * @param letter the guessed letter
+     * @return the outcome of the guess
+     */
+    public GuessOutcome guess(char letter) {
+        if (isOver()) {
+            return GuessOutcome.GAME_OVER;
+        }
+        int bit = LetterMask.of(letter);
+        if (bit == 0) {
+            return GuessOutcome.INVALID;
+        }
+        if ((gameSave.getGuessedLetters() & bit) != 0) {
+            return GuessOutcome.ALREADY_GUESSED;
+        }
+        gameSave.recordGuess(letter);
+        if (gameSave.getWord().containsLetter(letter)) {
+            return gameSave.isWordGuessed() ? GuessOutcome.WON : GuessOutcome.HIT;
+        }
+        return isLost() ? GuessOutcome.LOST : GuessOutcome.MISS;
+    }
+
+    /**
+     * Checks whether the word has been fully guessed.
+     *
+     * @return true if the game is won, false otherwise
+     */
+    public boolean isWon() {
+        return gameSave.isWordGuessed();
+    }
+
+    /**
+     * Checks whether the maximum number of incorrect guesses has been reached.
+     *
+     * @return true if the game is lost, false otherwise
+     */
+    public boolean isLost() {
+        return gameSave.getIncorrectGuesses() >= MAX_INCORRECT_GUESSES;
+    }
+
+    /**
+     * Checks whether the game is over.
+     *
+     * @return true if the game is won or lost, false otherwise
+     */
+    public boolean isOver() {
+        return isWon() || isLost();
+    }
+
+    /**
+     * Takes a snapshot of the state of the game.
+     *
+     * @return the state of the game
+     */
+    public GameState snapshot() {
+        return new GameState(
+                gameSave.getUsername(),
+                gameSave.getHiddenValue(),
+                gameSave.getDifficulty(),
+                gameSave.getGuessedLetters(),
+                gameSave.getIncorrectGuesses(),
+                gameSave.getRemainingLetters(),
+                isWon(),
+                isLost()
+        );
+    }
+
+    /**
+     * Gets the dictionary the words are picked from.
+     *
+     * @return the dictionary
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Gets the game save holding the state of the game.
+     *
+     * @return the game save
+     */
+    public GameSave getGameSave() {
+        return gameSave;
+    }
+}
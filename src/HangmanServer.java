@@ -0,0 +1,460 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * The HangmanServer class serves Hangman games to many players over a line-based TCP protocol on the loopback interface.
+ * Every connection is served by its own thread: a virtual thread when the JVM has them (Java 21 and later),
+ * a platform thread of a cached pool otherwise. The games are played with the HangmanEngine on saves of a shared
+ * SaveStore, and the words are picked from a shared Dictionary. The dictionary may be edited while the server runs,
+ * from the admin window or another thread: each pick reads the latest published words without blocking,
+ * and the WordPicker of a session starts a new order when the number of words of a difficulty changes.
+ * Components that keep state about the words, such as a WordSampler, follow the edits with a Dictionary.ChangeListener.
+ * A game in progress keeps its word, which is held by its GameSave, even if the word is removed.
+ * <p>
+ * Each request is one line, answered by one line. Commands are not case-sensitive:
+ * <ul>
+ *     <li>USER name: plays as a player, loading their save; must come first. Answers OK and the state of the game.</li>
+ *     <li>NEW [EASY|MEDIUM|HARD]: starts a game with a new word, of the same difficulty by default. Answers OK and the state.</li>
+ *     <li>GUESS letter: guesses a letter. Answers the GuessOutcome and the state.</li>
+ *     <li>STATE: answers OK and the state.</li>
+ *     <li>RANK: answers OK and "rank wins losses players" for the player, rank being "-" before their first finished round.</li>
+ *     <li>TOP [count]: answers OK and "username:wins:losses" for the best players, best first, 10 by default and 100 at most.</li>
+ *     <li>QUIT: writes the save, answers BYE and closes the connection.</li>
+ * </ul>
+ * The state is "difficulty incorrectGuesses/maxIncorrectGuesses guessedLetters PLAYING|WON|LOST hiddenWord",
+ * for example "HIT Easy 1/6 AEZ PLAYING _ _ A _ E", guessedLetters being "-" when none was guessed.
+ * Errors are answered with ERROR and a message. A player can only be connected once at a time.
+ */
+public class HangmanServer {
+    public static final int DEFAULT_PORT = 7777;
+
+    /**
+     * The time after which a connection without any request is closed.
+     */
+    public static final int IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * The stack size of the platform threads serving the connections when virtual threads are not available.
+     */
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private final Dictionary dictionary;
+    private final SaveStore store;
+    private final Leaderboard leaderboard;
+    private final Map<String, Connection> players;
+    private final Set<Connection> connections;
+    private ExecutorService executor;
+    private boolean virtualThreads;
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructs a HangmanServer playing with the specified dictionary and saves.
+     *
+     * @param dictionary the dictionary the words are picked from, which may be edited while the server runs
+     * @param store the store the saves of the players are kept in
+     */
+    public HangmanServer(Dictionary dictionary, SaveStore store) {
+        this(dictionary, store, Leaderboard.getShared());
+    }
+
+    /**
+     * Constructs a HangmanServer playing with the specified dictionary and saves, ranking the players on a leaderboard.
+     *
+     * @param dictionary the dictionary the words are picked from, which may be edited while the server runs
+     * @param store the store the saves of the players are kept in
+     * @param leaderboard the leaderboard the finished rounds are recorded in
+     */
+    public HangmanServer(Dictionary dictionary, SaveStore store, Leaderboard leaderboard) {
+        this.dictionary = dictionary;
+        this.store = store;
+        this.leaderboard = leaderboard;
+        this.players = new ConcurrentHashMap<>();
+        this.connections = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Starts accepting connections on the loopback interface, on a thread of its own.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        executor = newVirtualThreadExecutor();
+        virtualThreads = executor != null;
+        if (executor == null) {
+            executor = newPlatformThreadExecutor();
+        }
+        Thread acceptor = new Thread(this::acceptConnections, "hangman-server");
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Checks whether the connections are served by virtual threads.
+     *
+     * @return true with virtual threads, false with platform threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and waits for their saves to be written.
+     */
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, serving each one on its own thread.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                executor.execute(connection);
+            } catch (SocketException e) {
+                // the server socket was closed by stop()
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per connection. It is looked up by reflection,
+     * so the game still compiles and runs on Java 17.
+     *
+     * @return the executor, or null if the JVM has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // no virtual threads before Java 21
+            return null;
+        } catch (InvocationTargetException e) {
+            // virtual threads are a disabled preview feature on Java 19 and 20
+            return null;
+        }
+    }
+
+    /**
+     * Creates a cached pool of platform threads with small stacks, one thread serving each open connection.
+     *
+     * @return the executor
+     */
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(null, runnable, "hangman-session-" + threadCount.incrementAndGet(), PLATFORM_THREAD_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Formats the state of a game for the protocol.
+     *
+     * @param engine the engine playing the game
+     * @return the state of the game
+     */
+    private static String formatState(HangmanEngine engine) {
+        GameState state = engine.snapshot();
+        StringBuilder builder = new StringBuilder(64);
+        builder.append(state.difficulty()).append(' ')
+                .append(state.incorrectGuesses()).append('/').append(HangmanEngine.MAX_INCORRECT_GUESSES).append(' ');
+        if (state.guessedLetters() == 0) {
+            builder.append('-');
+        }
+        for (int i = 0; i < 26; i++) {
+            if ((state.guessedLetters() & (1 << i)) != 0) {
+                builder.append(LetterMask.letterAt(i));
+            }
+        }
+        builder.append(' ').append(state.won() ? "WON" : state.lost() ? "LOST" : "PLAYING")
+                .append(' ').append(state.hiddenValue());
+        return builder.toString();
+    }
+
+    /**
+     * The Connection class serves the requests of one client, on the thread of the connection.
+     */
+    private final class Connection implements Runnable {
+        private final Socket socket;
+        private String username;
+        private HangmanEngine engine;
+
+        /**
+         * Constructs a Connection serving the specified socket.
+         *
+         * @param socket the socket of the client
+         */
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (socket;
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String reply = handle(line.trim());
+                    writer.write(reply);
+                    writer.write('\n');
+                    writer.flush();
+                    if (reply.equals("BYE")) {
+                        break;
+                    }
+                }
+            } catch (SocketTimeoutException | SocketException e) {
+                // the client was idle for too long or went away
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                leave();
+                connections.remove(this);
+            }
+        }
+
+        /**
+         * Handles a request.
+         *
+         * @param request the request line
+         * @return the reply line
+         */
+        private String handle(String request) {
+            int space = request.indexOf(' ');
+            String command = (space < 0 ? request : request.substring(0, space)).toUpperCase(Locale.ROOT);
+            String argument = space < 0 ? "" : request.substring(space + 1).trim();
+            try {
+                if (command.equals("QUIT")) {
+                    leave();
+                    return "BYE";
+                }
+                if (command.equals("USER")) {
+                    return join(argument);
+                }
+                if (engine == null) {
+                    return "ERROR USER expected first";
+                }
+                return switch (command) {
+                    case "NEW" -> newGame(argument);
+                    case "GUESS" -> guess(argument);
+                    case "STATE" -> "OK " + formatState(engine);
+                    case "RANK" -> rank();
+                    case "TOP" -> top(argument);
+                    default -> "ERROR Unknown command: " + command;
+                };
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                return "ERROR " + e;
+            }
+        }
+
+        /**
+         * Plays as a player, loading their save. A game is started when the save has no word yet.
+         *
+         * @param name the username of the player
+         * @return the reply line
+         */
+        private String join(String name) {
+            if (engine != null) {
+                return "ERROR Already playing as " + username;
+            }
+            if (!USERNAME_PATTERN.matcher(name).matches()) {
+                return "ERROR Invalid username: " + name;
+            }
+            if (players.putIfAbsent(name, this) != null) {
+                return "ERROR " + name + " is already playing";
+            }
+            username = name;
+            GameSave gameSave = store.load(name);
+            engine = new HangmanEngine(dictionary, gameSave);
+            if (gameSave.getWord() == null) {
+                engine.start(Difficulty.Easy);
+            }
+            return "OK " + formatState(engine);
+        }
+
+        /**
+         * Starts a game with a new word.
+         *
+         * @param difficultyName the difficulty level of the word, or an empty text to keep the current one
+         * @return the reply line
+         */
+        private String newGame(String difficultyName) {
+            Difficulty difficulty = engine.getGameSave().getDifficulty();
+            if (!difficultyName.isEmpty()) {
+                difficulty = parseDifficulty(difficultyName);
+                if (difficulty == null) {
+                    return "ERROR Unknown difficulty: " + difficultyName;
+                }
+            }
+            engine.start(difficulty);
+            return "OK " + formatState(engine);
+        }
+
+        /**
+         * Guesses a letter.
+         *
+         * @param letter the guessed letter
+         * @return the reply line
+         */
+        private String guess(String letter) {
+            if (letter.length() != 1) {
+                return GuessOutcome.INVALID + " " + formatState(engine);
+            }
+            GuessOutcome outcome = engine.guess(Character.toUpperCase(letter.charAt(0)));
+            if (outcome == GuessOutcome.WON || outcome == GuessOutcome.LOST) {
+                leaderboard.recordRound(username, outcome == GuessOutcome.WON);
+            }
+            return outcome + " " + formatState(engine);
+        }
+
+        /**
+         * Gets the standing of the player.
+         *
+         * @return the reply line
+         */
+        private String rank() {
+            Leaderboard.Standing standing = leaderboard.getStanding(username);
+            if (standing == null) {
+                return "OK - 0 0 " + leaderboard.getPlayerCount();
+            }
+            return "OK " + standing.rank() + " " + standing.wins() + " " + standing.losses() + " " + leaderboard.getPlayerCount();
+        }
+
+        /**
+         * Gets the standings of the best players.
+         *
+         * @param countText the number of players, or an empty text for the default one
+         * @return the reply line
+         */
+        private String top(String countText) {
+            int count = 10;
+            if (!countText.isEmpty()) {
+                try {
+                    count = Integer.parseInt(countText);
+                } catch (NumberFormatException e) {
+                    return "ERROR Invalid count: " + countText;
+                }
+                if (count < 1 || count > 100) {
+                    return "ERROR Invalid count: " + countText;
+                }
+            }
+            StringBuilder reply = new StringBuilder("OK");
+            for (Leaderboard.Standing standing : leaderboard.getTop(count)) {
+                reply.append(' ').append(standing.username()).append(':').append(standing.wins()).append(':').append(standing.losses());
+            }
+            return reply.toString();
+        }
+
+        /**
+         * Ends the session of the player: writes their save and releases their guess journal.
+         */
+        private void leave() {
+            if (engine == null) {
+                return;
+            }
+            GameSave gameSave = engine.getGameSave();
+            engine = null;
+            try {
+                SaveWriter.getInstance().flush(gameSave);
+                gameSave.saveFile();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                gameSave.close();
+                players.remove(username, this);
+            }
+        }
+
+        /**
+         * Closes the socket, which ends the session on the thread of the connection.
+         */
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Parses a difficulty name, ignoring case.
+     *
+     * @param name the name of the difficulty
+     * @return the difficulty level, or null if the name is unknown
+     */
+    private static Difficulty parseDifficulty(String name) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.name().equalsIgnoreCase(name)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts a server with the shared dictionary and the default save store.
+     *
+     * @param port the port to listen on
+     * @throws IOException if the port cannot be bound
+     */
+    public static void serve(int port) throws IOException {
+        HangmanServer server = new HangmanServer(Dictionary.getShared(), SaveStore.getDefault());
+        server.start(port);
+        System.out.println("Hangman server listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort()
+                + (server.usesVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+    }
+}
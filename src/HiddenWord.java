@@ -0,0 +1,121 @@
+/**
+ * The HiddenWord class holds the rendering of a word during a game, with the letters not yet guessed hidden.
+ * The rendering is updated in place when a letter is revealed, touching only the positions of that letter,
+ * and the number of letters still hidden is kept to detect a win without reading the rendering.
+ */
+public class HiddenWord {
+    private DictionaryWord word;
+    private char[] display;
+    private int displayLength;
+    private int remainingLetters;
+    private int revealedLetters;
+    private String text;
+
+    /**
+     * Constructs a HiddenWord for the specified word, showing the letters of the guessedLetters mask.
+     *
+     * @param word the word to hide
+     * @param guessedLetters the mask of the letters already guessed
+     * @see LetterMask
+     */
+    public HiddenWord(DictionaryWord word, int guessedLetters) {
+        this.display = new char[0];
+        reset(word, guessedLetters);
+    }
+
+    /**
+     * Starts hiding another word, reusing the rendering buffer when it is large enough.
+     *
+     * @param word the word to hide
+     * @param guessedLetters the mask of the letters already guessed
+     */
+    public void reset(DictionaryWord word, int guessedLetters) {
+        DictionaryWord.Letters letters = word.getLetters();
+        int length = letters.upperCase.length;
+        this.word = word;
+        this.displayLength = Math.max(0, length * 2 - 1);
+        if (display.length < displayLength) {
+            display = new char[displayLength];
+        }
+        for (int i = 0; i < length; i++) {
+            display[i * 2] = '_';
+            if (i > 0) {
+                display[i * 2 - 1] = ' ';
+            }
+        }
+        remainingLetters = length;
+        revealedLetters = 0;
+        text = null;
+        for (int remaining = guessedLetters & LetterMask.ALL_LETTERS; remaining != 0; remaining &= remaining - 1) {
+            reveal(LetterMask.letterAt(Integer.numberOfTrailingZeros(remaining)));
+        }
+    }
+
+    /**
+     * Reveals every occurrence of a letter.
+     *
+     * @param letter the guessed letter
+     * @return the number of occurrences revealed, 0 if the word does not contain the letter or it was already revealed
+     */
+    public int reveal(char letter) {
+        int bit = LetterMask.of(letter);
+        if (bit == 0 || (revealedLetters & bit) != 0) {
+            return 0;
+        }
+        revealedLetters |= bit;
+        DictionaryWord.Letters letters = word.getLetters();
+        int index = Integer.numberOfTrailingZeros(bit);
+        int start = letters.letterStarts[index];
+        int end = letters.letterStarts[index + 1];
+        char upperCase = LetterMask.letterAt(index);
+        for (int i = start; i < end; i++) {
+            display[letters.positions[i] * 2] = upperCase;
+        }
+        remainingLetters -= end - start;
+        if (end > start) {
+            text = null;
+        }
+        return end - start;
+    }
+
+    /**
+     * Gets the number of letters still hidden, characters which cannot be guessed included.
+     *
+     * @return the number of hidden letters
+     */
+    public int getRemainingLetters() {
+        return remainingLetters;
+    }
+
+    /**
+     * Checks whether every letter of the word has been revealed.
+     *
+     * @return true if the word is fully revealed, false otherwise
+     */
+    public boolean isRevealed() {
+        return remainingLetters == 0;
+    }
+
+    /**
+     * Gets the hidden word.
+     *
+     * @return the hidden word
+     */
+    public DictionaryWord getWord() {
+        return word;
+    }
+
+    /**
+     * Returns the rendering of the word, for example "C _ D E".
+     * The string is only rebuilt after a letter has been revealed.
+     *
+     * @return the word with hidden letters
+     */
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = new String(display, 0, displayLength);
+        }
+        return text;
+    }
+}
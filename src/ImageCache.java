@@ -0,0 +1,120 @@
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ImageCache class decodes the image resources of the game once and keeps them as icons,
+ * converted to the pixel format of the screen so they are drawn without conversion.
+ * Changing the hangman stage then only swaps an icon which is already decoded.
+ */
+public final class ImageCache {
+    /**
+     * The number of hangman stages, from /images/1.png to /images/7.png.
+     */
+    public static final int HANGMAN_STAGES = 7;
+
+    public static final String ADMIN_ICON_PATH = "/images/Admin.png";
+    public static final int ADMIN_ICON_SIZE = 25;
+
+    private static final Map<String, ImageIcon> ICONS = new ConcurrentHashMap<>();
+
+    private ImageCache() {
+    }
+
+    /**
+     * Gets the icon of an image resource, decoding it on first use.
+     *
+     * @param resourcePath the path to the image resource
+     * @return the icon
+     */
+    public static ImageIcon getIcon(String resourcePath) {
+        return ICONS.computeIfAbsent(resourcePath, path -> new ImageIcon(toCompatibleImage(read(path), -1, -1)));
+    }
+
+    /**
+     * Gets the icon of an image resource scaled to the specified size, decoding and scaling it on first use.
+     *
+     * @param resourcePath the path to the image resource
+     * @param width the width of the icon
+     * @param height the height of the icon
+     * @return the scaled icon
+     */
+    public static ImageIcon getScaledIcon(String resourcePath, int width, int height) {
+        return ICONS.computeIfAbsent(resourcePath + "@" + width + "x" + height,
+                key -> new ImageIcon(toCompatibleImage(read(resourcePath), width, height)));
+    }
+
+    /**
+     * Gets the path of the image of a hangman stage.
+     *
+     * @param incorrectGuesses the number of incorrect guesses
+     * @return the path to the image resource
+     */
+    public static String getHangmanImagePath(int incorrectGuesses) {
+        return "/images/" + (Math.min(incorrectGuesses, HANGMAN_STAGES - 1) + 1) + ".png";
+    }
+
+    /**
+     * Decodes the hangman stages and the admin icon.
+     */
+    public static void preload() {
+        for (int incorrectGuesses = 0; incorrectGuesses < HANGMAN_STAGES; incorrectGuesses++) {
+            getIcon(getHangmanImagePath(incorrectGuesses));
+        }
+        getScaledIcon(ADMIN_ICON_PATH, ADMIN_ICON_SIZE, ADMIN_ICON_SIZE);
+    }
+
+    /**
+     * Decodes an image resource.
+     *
+     * @param resourcePath the path to the image resource
+     * @return the decoded image
+     */
+    private static BufferedImage read(String resourcePath) {
+        try (InputStream inputStream = ImageCache.class.getResourceAsStream(resourcePath)) {
+            if (inputStream == null) {
+                throw new IOException("Image resource not found: " + resourcePath);
+            }
+            return ImageIO.read(inputStream);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Copies an image into an image with the pixel format of the screen, scaling it if requested.
+     * Without a screen, the image is only scaled.
+     *
+     * @param image the decoded image
+     * @param width the width of the copy, -1 to keep the width of the image
+     * @param height the height of the copy, -1 to keep the height of the image
+     * @return the copy of the image
+     */
+    private static BufferedImage toCompatibleImage(BufferedImage image, int width, int height) {
+        int targetWidth = width < 0 ? image.getWidth() : width;
+        int targetHeight = height < 0 ? image.getHeight() : height;
+        BufferedImage compatibleImage;
+        if (GraphicsEnvironment.isHeadless()) {
+            if (targetWidth == image.getWidth() && targetHeight == image.getHeight()) {
+                return image;
+            }
+            compatibleImage = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            compatibleImage = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice()
+                    .getDefaultConfiguration()
+                    .createCompatibleImage(targetWidth, targetHeight, image.getTransparency());
+        }
+        Graphics2D graphics = compatibleImage.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        graphics.dispose();
+        return compatibleImage;
+    }
+}
@@ -0,0 +1,325 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The IndexedSaveStore class keeps the saves of every player in a single memory-mapped file.
+ * The file is a hash table of fixed-size slots keyed by username, with linear probing:
+ * a save is found, updated in place or added in constant time, without listing any directory.
+ * <p>
+ * Layout (big-endian): a header of HEADER_SIZE bytes (int magic "HGST", int version, int capacity, int count,
+ * int old capacity and int new capacity of an interrupted growth, both 0 otherwise), then capacity slots of SLOT_SIZE bytes (int username hash, byte active half, byte used flag, 2 unused bytes,
+ * then two halves of HALF_SIZE bytes, each a short record length followed by a GameSave record).
+ * A save is written to the inactive half before the active half is switched,
+ * so a crash during a write leaves the previous save readable.
+ * The table is doubled in place when it is 70% full: the slots are copied to a side file, the store file
+ * is extended and mapped again, and the saves are rehashed from the copy. The store file is never moved
+ * or replaced while it is mapped, which the file systems of Windows refuse; a growth interrupted
+ * by a crash is finished when the store is opened again.
+ * The guess journals of the players are kept in the "journals" folder next to the store file.
+ */
+public class IndexedSaveStore implements SaveStore {
+    public static final int MAGIC = 0x48475354;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 64;
+    public static final int SLOT_SIZE = 512;
+
+    private static final int SLOT_HEADER_SIZE = 8;
+    private static final int HALF_SIZE = (SLOT_SIZE - SLOT_HEADER_SIZE) / 2;
+    private static final int MAX_RECORD_SIZE = HALF_SIZE - 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+    private static final int GROWTH_CHUNK_SLOTS = 64;
+
+    private final File file;
+    private final File journalDirectory;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+
+    /**
+     * Constructs an IndexedSaveStore kept in the specified file, creating the file if it does not exist.
+     *
+     * @param file the store file
+     */
+    public IndexedSaveStore(File file) {
+        this.file = file;
+        this.journalDirectory = new File(file.getAbsoluteFile().getParentFile(), "journals");
+        journalDirectory.mkdirs();
+        try {
+            if (!file.isFile() || file.length() == 0) {
+                create(file, INITIAL_CAPACITY);
+            }
+            open();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates an empty store file.
+     *
+     * @param file the store file
+     * @param capacity the number of slots
+     * @throws IOException if an I/O error occurs
+     */
+    private static void create(File file, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            mapped.putInt(0, MAGIC);
+            mapped.putInt(4, VERSION);
+            mapped.putInt(8, capacity);
+            mapped.putInt(12, 0);
+            mapped.force();
+        }
+    }
+
+    /**
+     * Maps the store file and reads its header.
+     *
+     * @throws IOException if an I/O error occurs or the file is not a save store
+     */
+    private void open() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a save store: " + file);
+        }
+        capacity = buffer.getInt(8);
+        count = buffer.getInt(12);
+        if (buffer.getInt(16) != 0) {
+            rehash(buffer.getInt(16), buffer.getInt(20));
+        }
+    }
+
+    @Override
+    public synchronized GameSave load(String username) {
+        int slot = findSlot(username);
+        if (recordLength(slot) == 0) {
+            GameSave gameSave = new GameSave(null, username);
+            gameSave.setStore(this);
+            return gameSave;
+        }
+        ByteBuffer record = buffer.slice(recordOffset(slot), recordLength(slot));
+        try {
+            GameSave gameSave = GameSave.readRecord(null, record);
+            gameSave.setStore(this);
+            gameSave.replayJournal();
+            return gameSave;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public synchronized void save(GameSave gameSave) {
+        int recordSize = gameSave.getRecordSize();
+        if (recordSize > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Save record too large: " + recordSize + " bytes");
+        }
+        int slot = findSlot(gameSave.getUsername());
+        int offset = slotOffset(slot);
+        if (recordLength(slot) == 0) {
+            if ((count + 1) * 10L > capacity * 7L) {
+                grow();
+                slot = findSlot(gameSave.getUsername());
+                offset = slotOffset(slot);
+            }
+            int halfOffset = offset + SLOT_HEADER_SIZE;
+            gameSave.writeRecord(buffer.slice(halfOffset + 2, recordSize));
+            buffer.putShort(halfOffset, (short) recordSize);
+            buffer.putInt(offset, gameSave.getUsername().hashCode());
+            buffer.put(offset + 4, (byte) 0);
+            buffer.put(offset + 5, (byte) 1);
+            count++;
+            buffer.putInt(12, count);
+            return;
+        }
+        int inactiveHalf = 1 - buffer.get(offset + 4);
+        int halfOffset = offset + SLOT_HEADER_SIZE + inactiveHalf * HALF_SIZE;
+        gameSave.writeRecord(buffer.slice(halfOffset + 2, recordSize));
+        buffer.putShort(halfOffset, (short) recordSize);
+        buffer.put(offset + 4, (byte) inactiveHalf);
+    }
+
+    @Override
+    public File getJournalFile(String username) {
+        return new File(journalDirectory, username + GuessJournal.EXTENSION);
+    }
+
+    @Override
+    public synchronized boolean exists(String username) {
+        return recordLength(findSlot(username)) != 0;
+    }
+
+    @Override
+    public synchronized List<String> listUsernames() {
+        List<String> usernames = new ArrayList<>(count);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (recordLength(slot) != 0) {
+                usernames.add(readUsername(slot));
+            }
+        }
+        return usernames;
+    }
+
+    /**
+     * Finds the slot of a username: the slot holding its save, or the free slot where it would be added.
+     *
+     * @param username the username
+     * @return the slot index
+     */
+    private int findSlot(String username) {
+        int hash = username.hashCode();
+        int slot = Math.floorMod(hash * 0x9E3779B9, capacity);
+        while (recordLength(slot) != 0) {
+            if (buffer.getInt(slotOffset(slot)) == hash && readUsername(slot).equals(username)) {
+                return slot;
+            }
+            slot = slot + 1 == capacity ? 0 : slot + 1;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the number of slots in place. The slots are first copied to a side file and the growth is noted
+     * in the header, so a growth interrupted by a crash is finished from the copy when the store is opened again.
+     */
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Save store full");
+        }
+        int newCapacity = (int) Math.min((long) capacity * 2, MAX_CAPACITY);
+        try (FileChannel copy = FileChannel.open(getGrowthFile().toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer slots = buffer.slice(HEADER_SIZE, capacity * SLOT_SIZE);
+            while (slots.hasRemaining()) {
+                copy.write(slots);
+            }
+            copy.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        buffer.putInt(16, capacity);
+        buffer.putInt(20, newCapacity);
+        buffer.force();
+        rehash(capacity, newCapacity);
+    }
+
+    /**
+     * Extends the store file to the new number of slots, maps it again, and rehashes the saves
+     * of the copy of the old slots into it. The copy is deleted once the new table is written.
+     *
+     * @param oldCapacity the number of slots of the copy
+     * @param newCapacity the new number of slots
+     */
+    private void rehash(int oldCapacity, int newCapacity) {
+        File growthFile = getGrowthFile();
+        try {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+            }
+            capacity = newCapacity;
+            for (int slot = 0; slot < capacity; slot++) {
+                buffer.put(slotOffset(slot) + 5, (byte) 0);
+            }
+            // the copy is read, not mapped, so it can be deleted at once on every system
+            ByteBuffer chunk = ByteBuffer.allocate(GROWTH_CHUNK_SLOTS * SLOT_SIZE);
+            try (FileChannel copy = FileChannel.open(growthFile.toPath(), StandardOpenOption.READ)) {
+                for (int first = 0; first < oldCapacity; first += GROWTH_CHUNK_SLOTS) {
+                    chunk.clear();
+                    chunk.limit(Math.min(GROWTH_CHUNK_SLOTS, oldCapacity - first) * SLOT_SIZE);
+                    while (chunk.hasRemaining()) {
+                        if (copy.read(chunk) < 0) {
+                            throw new IOException("Truncated save store copy: " + growthFile);
+                        }
+                    }
+                    for (int oldOffset = 0; oldOffset < chunk.limit(); oldOffset += SLOT_SIZE) {
+                        if (chunk.get(oldOffset + 5) == 0) {
+                            continue;
+                        }
+                        int slot = Math.floorMod(chunk.getInt(oldOffset) * 0x9E3779B9, capacity);
+                        while (recordLength(slot) != 0) {
+                            slot = slot + 1 == capacity ? 0 : slot + 1;
+                        }
+                        buffer.put(slotOffset(slot), chunk, oldOffset, SLOT_SIZE);
+                    }
+                }
+            }
+            buffer.force();
+            buffer.putInt(8, capacity);
+            buffer.putInt(16, 0);
+            buffer.putInt(20, 0);
+            buffer.force();
+            Files.delete(growthFile.toPath());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the side file holding the copy of the slots while the table grows.
+     *
+     * @return the copy file
+     */
+    private File getGrowthFile() {
+        return new File(file.getPath() + ".grow");
+    }
+
+    /**
+     * Gets the position of a slot in the file.
+     *
+     * @param slot the slot index
+     * @return the position of the slot
+     */
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Gets the position in the file of the record stored in the active half of a slot.
+     *
+     * @param slot the slot index
+     * @return the position of the record
+     */
+    private int recordOffset(int slot) {
+        int offset = slotOffset(slot);
+        return offset + SLOT_HEADER_SIZE + buffer.get(offset + 4) * HALF_SIZE + 2;
+    }
+
+    /**
+     * Gets the length of the record stored in a slot.
+     *
+     * @param slot the slot index
+     * @return the record length, 0 if the slot is free
+     */
+    private int recordLength(int slot) {
+        if (buffer.get(slotOffset(slot) + 5) == 0) {
+            return 0;
+        }
+        return Short.toUnsignedInt(buffer.getShort(recordOffset(slot) - 2));
+    }
+
+    /**
+     * Reads the username of the record stored in a slot, without reading the rest of the record.
+     *
+     * @param slot the slot index
+     * @return the username
+     */
+    private String readUsername(int slot) {
+        int offset = recordOffset(slot) + GameSave.USERNAME_OFFSET;
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,10 +1,8 @@
-import javax.imageio.ImageIO;
 import javax.swing.*;
-import java.awt.image.BufferedImage;
-import java.io.InputStream;
 
 /**
  * The JImageResourceLabel class is a custom JLabel that loads and displays an image from a resource path.
+ * The images are decoded once and shared through the ImageCache.
  */
 public class JImageResourceLabel extends JLabel {
 
@@ -25,11 +23,8 @@ public class JImageResourceLabel extends JLabel {
      * @param resourcePath the path to the image resource
      */
     public void setImageResourcePath(String resourcePath) {
-        BufferedImage image;
         try {
-            InputStream inputStream = getClass().getResourceAsStream(resourcePath);
-            image = ImageIO.read(inputStream);
-            setIcon(new ImageIcon(image));
+            setIcon(ImageCache.getIcon(resourcePath));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -0,0 +1,357 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Leaderboard class keeps the wins and losses of every player, and ranks the players by wins,
+ * then by fewer losses, then by username. The ranking is a RankedSkipList updated on each finished round,
+ * so the best players and the rank of a player are found in O(log n) whatever the number of players,
+ * without reading their saves.
+ * <p>
+ * The results are kept in a file next to the dictionary, "players.stats". Like the statistics of the words,
+ * the file is a log: each finished round is appended as one record on a background thread, the records
+ * of a player are added up when the file is loaded, and the log is compacted in the background into one record
+ * per player once it holds many more records than players.
+ * <p>
+ * Layout (big-endian): int magic "HGPL", int version, then records: short length of the username,
+ * the username in UTF-8, int wins, int losses. A record cut by a crash is ignored.
+ */
+public class Leaderboard {
+    public static final int MAGIC = 0x4847504C;
+    public static final int VERSION = 1;
+
+    /**
+     * The maximum length of a username in UTF-8 bytes, the largest length a record can hold.
+     */
+    public static final int MAX_USERNAME_LENGTH = 0xFFFF;
+
+    /**
+     * The number of records above the number of players from which the log is compacted.
+     */
+    private static final int COMPACTION_SLACK = 4096;
+
+    private static final Comparator<Player> ORDER = Comparator.<Player>comparingInt(player -> -player.wins)
+            .thenComparingInt(player -> player.losses)
+            .thenComparing(player -> player.username);
+
+    private static Leaderboard shared;
+
+    private final File file;
+    private final ExecutorService writer;
+    private final Map<String, Player> players;
+    private final RankedSkipList<Player> ranking;
+    private List<String> pendingUsernames;
+    private List<Boolean> pendingResults;
+    private int recordCount;
+
+    /**
+     * Constructs a Leaderboard kept in the specified file, loading the results already recorded.
+     *
+     * @param file the results file, or null to keep the results in memory only
+     */
+    public Leaderboard(File file) {
+        this.file = file;
+        this.players = new HashMap<>();
+        this.ranking = new RankedSkipList<>(ORDER);
+        this.pendingUsernames = new ArrayList<>();
+        this.pendingResults = new ArrayList<>();
+        if (file == null) {
+            writer = null;
+            return;
+        }
+        load(file);
+        List<Player> loaded = new ArrayList<>(players.values());
+        loaded.sort(ORDER);
+        ranking.addAllSorted(loaded);
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "leaderboard-flush"));
+    }
+
+    /**
+     * Gets the leaderboard of the application, kept next to words.txt.
+     *
+     * @return the shared leaderboard
+     */
+    public static synchronized Leaderboard getShared() {
+        if (shared == null) {
+            shared = new Leaderboard(new File("players.stats"));
+        }
+        return shared;
+    }
+
+    /**
+     * Records the result of a finished round, moving the player in the ranking.
+     *
+     * @param username the username of the player
+     * @param won true if the player found the word
+     * @throws IllegalArgumentException if the username is longer than MAX_USERNAME_LENGTH bytes in UTF-8
+     */
+    public synchronized void recordRound(String username, boolean won) {
+        if (username.getBytes(StandardCharsets.UTF_8).length > MAX_USERNAME_LENGTH) {
+            throw new IllegalArgumentException("Username too long: " + username.length() + " characters");
+        }
+        add(username, won ? 1 : 0, won ? 0 : 1, true);
+        if (writer != null) {
+            // a single task writes every round recorded until it runs
+            if (pendingUsernames.isEmpty()) {
+                writer.execute(this::appendPending);
+            }
+            pendingUsernames.add(username);
+            pendingResults.add(won);
+        }
+    }
+
+    /**
+     * Gets the standing of a player.
+     *
+     * @param username the username of the player
+     * @return the standing, or null if the player never finished a round
+     */
+    public synchronized Standing getStanding(String username) {
+        Player player = players.get(username);
+        if (player == null) {
+            return null;
+        }
+        return new Standing(ranking.rankOf(player) + 1, player.username, player.wins, player.losses);
+    }
+
+    /**
+     * Gets the standings of the best players.
+     *
+     * @param count the maximum number of players
+     * @return the standings, best first
+     */
+    public List<Standing> getTop(int count) {
+        return getStandings(1, count);
+    }
+
+    /**
+     * Gets the standings of the players from a rank on.
+     *
+     * @param rank the rank of the first player, from 1
+     * @param count the maximum number of players
+     * @return the standings, best first
+     */
+    public synchronized List<Standing> getStandings(int rank, int count) {
+        List<Standing> standings = new ArrayList<>();
+        for (Player player : ranking.subList(rank - 1, count)) {
+            standings.add(new Standing(rank + standings.size(), player.username, player.wins, player.losses));
+        }
+        return standings;
+    }
+
+    /**
+     * Gets the number of players who finished at least one round.
+     *
+     * @return the number of players
+     */
+    public synchronized int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Waits until the recorded rounds have been written to the file.
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(() -> {
+            }).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds wins and losses to a player.
+     *
+     * @param username the username of the player
+     * @param winCount the number of wins to add
+     * @param lossCount the number of losses to add
+     * @param ranked true to move the player in the ranking, false while loading before the ranking is built
+     */
+    private void add(String username, int winCount, int lossCount, boolean ranked) {
+        Player player = players.get(username);
+        if (player == null) {
+            player = new Player(username);
+            players.put(username, player);
+        } else if (ranked) {
+            ranking.remove(player);
+        }
+        player.wins += winCount;
+        player.losses += lossCount;
+        if (ranked) {
+            ranking.add(player);
+        }
+    }
+
+    /**
+     * Loads the records of a results file, adding up the results of each player.
+     *
+     * @param file the results file
+     */
+    private void load(File file) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                System.err.println("Ignoring " + file + ": not a leaderboard file");
+                return;
+            }
+            while (true) {
+                byte[] username = new byte[input.readUnsignedShort()];
+                input.readFully(username);
+                int winCount = input.readInt();
+                int lossCount = input.readInt();
+                add(new String(username, StandardCharsets.UTF_8), winCount, lossCount, false);
+                recordCount++;
+            }
+        } catch (FileNotFoundException | EOFException e) {
+            // no results yet, or the last record was cut by a crash
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Appends the records of the rounds recorded since the last call to the file, on the writer thread.
+     */
+    private void appendPending() {
+        List<String> usernames;
+        List<Boolean> results;
+        synchronized (this) {
+            usernames = pendingUsernames;
+            results = pendingResults;
+            pendingUsernames = new ArrayList<>();
+            pendingResults = new ArrayList<>();
+        }
+        try {
+            boolean created = !file.isFile();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+                if (created) {
+                    output.writeInt(MAGIC);
+                    output.writeInt(VERSION);
+                }
+                for (int i = 0; i < usernames.size(); i++) {
+                    boolean won = results.get(i);
+                    writeRecord(output, usernames.get(i), won ? 1 : 0, won ? 0 : 1);
+                }
+            }
+            compactIfNeeded(usernames.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rewrites the file with one record per player once it holds many more records than players, on the writer thread.
+     * The records are read back from the file rather than taken from memory, since the rounds recorded
+     * in memory may not be written yet. The new file is written next to the old one, then moved over it.
+     *
+     * @param appendedCount the number of records just appended
+     * @throws IOException if an I/O error occurs
+     */
+    private void compactIfNeeded(int appendedCount) throws IOException {
+        synchronized (this) {
+            recordCount += appendedCount;
+            if (recordCount < players.size() * 2 + COMPACTION_SLACK) {
+                return;
+            }
+        }
+        Leaderboard written = new Leaderboard(null);
+        written.load(file);
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            for (Player player : written.players.values()) {
+                writeRecord(output, player.username, player.wins, player.losses);
+            }
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            recordCount = written.players.size();
+        }
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param output the output stream
+     * @param username the username of the player
+     * @param winCount the number of wins
+     * @param lossCount the number of losses
+     * @throws IOException if an I/O error occurs or the username is too long for a record
+     */
+    private static void writeRecord(DataOutputStream output, String username, int winCount, int lossCount) throws IOException {
+        byte[] bytes = username.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_USERNAME_LENGTH) {
+            throw new IOException("Username too long for a record: " + bytes.length + " bytes");
+        }
+        output.writeShort(bytes.length);
+        output.write(bytes);
+        output.writeInt(winCount);
+        output.writeInt(lossCount);
+    }
+
+    /**
+     * The Standing record is the place of a player in the ranking.
+     *
+     * @param rank the rank of the player, from 1 for the best player
+     * @param username the username of the player
+     * @param wins the number of rounds won
+     * @param losses the number of rounds lost
+     */
+    public record Standing(int rank, String username, int wins, int losses) {
+        /**
+         * Gets the number of finished rounds.
+         *
+         * @return the number of rounds
+         */
+        public int getGames() {
+            return wins + losses;
+        }
+    }
+
+    /**
+     * The Player class holds the results of a player. Its wins and losses only change while it is out of the ranking.
+     */
+    private static final class Player {
+        private final String username;
+        private int wins;
+        private int losses;
+
+        /**
+         * Constructs a Player without any result.
+         *
+         * @param username the username of the player
+         */
+        Player(String username) {
+            this.username = username;
+        }
+    }
+}
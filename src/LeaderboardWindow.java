@@ -0,0 +1,67 @@
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * The LeaderboardWindow class represents a window that displays the best players of the leaderboard,
+ * and the rank of the current player.
+ */
+public class LeaderboardWindow extends JFrame {
+    /**
+     * The number of players shown.
+     */
+    public static final int TOP_COUNT = 20;
+
+    /**
+     * Constructs a LeaderboardWindow object for the specified player.
+     * Sets up the window properties and adds the table of the best players.
+     *
+     * @param username the username of the current player
+     */
+    public LeaderboardWindow(String username) {
+        setTitle("Leaderboard");
+        setSize(400, 450);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        Leaderboard leaderboard = Leaderboard.getShared();
+        List<Leaderboard.Standing> standings = leaderboard.getTop(TOP_COUNT);
+        DefaultTableModel model = new DefaultTableModel(new Object[]{"Rank", "Player", "Wins", "Losses"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        for (Leaderboard.Standing standing : standings) {
+            model.addRow(new Object[]{standing.rank(), standing.username(), standing.wins(), standing.losses()});
+        }
+        JTable table = new JTable(model);
+        table.setFont(new Font("Arial", Font.PLAIN, 14));
+        table.setRowHeight(22);
+
+        Leaderboard.Standing standing = leaderboard.getStanding(username);
+        JLabel rankLabel = new JLabel(standing == null
+                ? username + ", finish a round to enter the leaderboard."
+                : username + ", you are #" + standing.rank() + " of " + leaderboard.getPlayerCount()
+                + " (" + standing.wins() + " wins, " + standing.losses() + " losses)");
+        rankLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        rankLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(rankLabel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Opens the LeaderboardWindow for the specified player.
+     *
+     * @param username the username of the current player
+     */
+    public static void openWindow(String username) {
+        SwingUtilities.invokeLater(() -> {
+            LeaderboardWindow leaderboardWindow = new LeaderboardWindow(username);
+            leaderboardWindow.setVisible(true);
+        });
+    }
+}
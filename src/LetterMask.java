@@ -0,0 +1,82 @@
+import java.util.Collection;
+
+/**
+ * The LetterMask class holds helpers for sets of letters stored as a 32-bit mask.
+ * Bit 0 is the letter A, bit 25 the letter Z. Bit 26 stands for the characters that cannot be guessed
+ * with the letter buttons, so a word containing one is never fully revealed.
+ */
+public final class LetterMask {
+    /**
+     * The bit set in a word mask when the word contains a character other than A to Z.
+     */
+    public static final int UNGUESSABLE = 1 << 26;
+
+    /**
+     * The mask containing every letter from A to Z.
+     */
+    public static final int ALL_LETTERS = (1 << 26) - 1;
+
+    private LetterMask() {
+    }
+
+    /**
+     * Gets the bit of a letter, regardless of its case.
+     *
+     * @param letter the letter
+     * @return the bit of the letter, or 0 if it is not a letter from A to Z
+     */
+    public static int of(char letter) {
+        char upperCase = Character.toUpperCase(letter);
+        return upperCase >= 'A' && upperCase <= 'Z' ? 1 << (upperCase - 'A') : 0;
+    }
+
+    /**
+     * Builds the mask of a collection of letters.
+     *
+     * @param letters the letters
+     * @return the mask of the letters
+     */
+    public static int of(Collection<Character> letters) {
+        int mask = 0;
+        for (char letter : letters) {
+            mask |= of(letter);
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the mask of the letters of a word, with the UNGUESSABLE bit if it contains other characters.
+     *
+     * @param word the word
+     * @return the mask of the word
+     */
+    public static int ofWord(String word) {
+        int mask = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int bit = of(word.charAt(i));
+            mask |= bit == 0 ? UNGUESSABLE : bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether a mask contains a letter.
+     *
+     * @param mask the mask
+     * @param letter the letter
+     * @return true if the letter is in the mask, false otherwise
+     */
+    public static boolean contains(int mask, char letter) {
+        return (mask & of(letter)) != 0;
+    }
+
+    /**
+     * Gets the letter of a bit index.
+     *
+     * @param index the bit index, from 0 to 25
+     * @return the upper-case letter
+     */
+    public static char letterAt(int index) {
+        return (char) ('A' + index);
+    }
+}
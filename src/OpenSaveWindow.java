@@ -20,6 +20,7 @@ public class OpenSaveWindow extends PickSaveWindow {
     @Override
     void fileSelected(File file) {
         if (file.isFile()) {
+            SaveWriter.getInstance().flush();
             Hangman.openWindow(GameSave.loadSave(file));
         }
         fileOpenedCallback.run();
@@ -55,7 +55,7 @@ public abstract class PickSaveWindow extends JFrame implements ActionListener {
         chooser.setFileFilter(new FileFilter() {
             @Override
             public boolean accept(File f) {
-                return (f.getName().endsWith(".hangman.txt"));
+                return (f.getName().endsWith(FileSaveStore.EXTENSION));
             }
 
             @Override
@@ -1,5 +1,4 @@
 import javax.swing.*;
-import java.io.File;
 import java.io.IOException;
 
 /**
@@ -7,6 +6,15 @@ import java.io.IOException;
  * It provides methods to start a new game, load a saved game, or open the admin options.
  */
 public class Program {
+    /**
+     * The command line flag running the startup training run instead of the game.
+     */
+    public static final String TRAINING_FLAG = "--train";
+
+    /**
+     * The command line flag running the game server instead of the game, see HangmanServer.
+     */
+    public static final String SERVER_FLAG = "--server";
 
     /**
      * Displays a dialog to choose an action: start a new game, load a saved game, or open admin options.
@@ -23,38 +31,72 @@ public class Program {
                 options,
                 options[0]
         );
+        Startup.mark("action chosen");
         switch (chosenOption) {
             case 0 -> newGame();
-            case 1 -> OpenSaveWindow.openWindow();
+            case 1 -> loadGame();
             case 2 -> AdminOptions.openWindow();
         }
     }
 
     /**
      * The main method, which is the entry point of the application.
-     * It creates the save folder and displays the action choice dialog.
+     * It starts the warm-up phases, creates the save folder and displays the action choice dialog.
+     * With --train, it only runs the startup work and exits, see Startup.train().
+     * With --server, it serves games over the network instead of opening a window, see HangmanServer.
      *
-     * @param args the command line arguments
+     * @param args the command line arguments: [--train | --server [port]]
      */
     public static void main(String[] args) {
+        Startup.mark("main");
+        if (args.length > 0 && args[0].equals(TRAINING_FLAG)) {
+            Startup.train();
+            System.exit(0);
+        }
+        if (args.length > 0 && args[0].equals(SERVER_FLAG)) {
+            try {
+                HangmanServer.serve(args.length > 1 ? Integer.parseInt(args[1]) : HangmanServer.DEFAULT_PORT);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return;
+        }
+        Startup.warmUp();
         GameSave.createSaveFolder();
         chooseAction();
     }
 
     /**
-     * Starts a new game by prompting the user for a username and creating a new save file.
-     * Opens the Hangman game window with the new save file.
+     * Starts a new game by prompting the user for a username and loading or creating the save of this player.
+     * Opens the Hangman game window with the save.
      */
     public static void newGame() {
         String username = JOptionPane.showInputDialog(null, "Please input username");
         if (username != null) {
-            try {
-                File file = new File("saves/" + username + ".hangman.txt");
-                GameSave.createSave(file);
-                Hangman.openWindow(GameSave.loadSave(file));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            SaveWriter.getInstance().flush();
+            Hangman.openWindow(SaveStore.getDefault().load(username));
+        }
+    }
+
+    /**
+     * Opens a saved game: with the file chooser when saves are kept in files,
+     * otherwise by prompting for the username and looking it up in the save store.
+     */
+    public static void loadGame() {
+        SaveStore store = SaveStore.getDefault();
+        if (store instanceof FileSaveStore) {
+            OpenSaveWindow.openWindow();
+            return;
+        }
+        String username = JOptionPane.showInputDialog(null, "Please input the username of the save");
+        if (username == null) {
+            System.exit(0);
+        } else if (store.exists(username)) {
+            SaveWriter.getInstance().flush();
+            Hangman.openWindow(store.load(username));
+        } else {
+            JOptionPane.showMessageDialog(null, "No save found for " + username);
+            loadGame();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The RankedSkipList class keeps elements sorted, and finds the element at a rank or the rank of an element
+ * in O(log n) expected time, as well as adding and removing an element.
+ * <p>
+ * Each node of the skip list is linked at a random number of levels, a node being linked at a level with
+ * probability 1/4 of being linked at the level below; each link also stores its span, the number of nodes
+ * it goes past, so a search adds up the spans of the links it follows to count the elements before a node.
+ * <p>
+ * The comparator must order every element differently from the others: two elements comparing as equal
+ * are the same element. The elements must not change while they are in the list in a way that changes their order;
+ * remove an element, change it, then add it back. The list is not thread-safe.
+ *
+ * @param <E> the type of the elements
+ */
+public class RankedSkipList<E> {
+    private static final int MAX_LEVEL = 32;
+
+    private final Comparator<? super E> comparator;
+    private final Node<E> head;
+    private final SplittableRandom random;
+    private int level;
+    private int size;
+
+    /**
+     * Constructs an empty RankedSkipList.
+     *
+     * @param comparator the order of the elements
+     */
+    public RankedSkipList(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+        this.head = new Node<>(null, MAX_LEVEL);
+        this.random = new SplittableRandom();
+        this.level = 1;
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param element the element, which must not be in the list already
+     */
+    public void add(E element) {
+        @SuppressWarnings("unchecked")
+        Node<E>[] previous = (Node<E>[]) new Node<?>[MAX_LEVEL];
+        int[] ranks = new int[MAX_LEVEL];
+        Node<E> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            ranks[i] = i == level - 1 ? 0 : ranks[i + 1];
+            while (node.next[i] != null && comparator.compare(node.next[i].element, element) < 0) {
+                ranks[i] += node.spans[i];
+                node = node.next[i];
+            }
+            previous[i] = node;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                ranks[i] = 0;
+                previous[i] = head;
+                head.spans[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node<E> added = new Node<>(element, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            added.next[i] = previous[i].next[i];
+            previous[i].next[i] = added;
+            // the new node splits the span of the link it was inserted into
+            added.spans[i] = previous[i].spans[i] - (ranks[0] - ranks[i]);
+            previous[i].spans[i] = ranks[0] - ranks[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            previous[i].spans[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Adds elements already sorted to an empty list, in O(n): each element is linked after the last one,
+     * without searching for its place.
+     *
+     * @param elements the elements, sorted in the order of the list
+     */
+    public void addAllSorted(List<? extends E> elements) {
+        if (size != 0) {
+            throw new IllegalStateException("The list is not empty");
+        }
+        @SuppressWarnings("unchecked")
+        Node<E>[] last = (Node<E>[]) new Node<?>[MAX_LEVEL];
+        int[] lastRanks = new int[MAX_LEVEL];
+        Arrays.fill(last, head);
+        for (E element : elements) {
+            int nodeLevel = randomLevel();
+            level = Math.max(level, nodeLevel);
+            Node<E> added = new Node<>(element, nodeLevel);
+            size++;
+            for (int i = 0; i < nodeLevel; i++) {
+                last[i].next[i] = added;
+                last[i].spans[i] = size - lastRanks[i];
+                last[i] = added;
+                lastRanks[i] = size;
+            }
+        }
+        for (int i = 0; i < level; i++) {
+            last[i].spans[i] = size - lastRanks[i];
+        }
+    }
+
+    /**
+     * Removes an element.
+     *
+     * @param element the element
+     * @return true if the element was in the list, false otherwise
+     */
+    public boolean remove(E element) {
+        @SuppressWarnings("unchecked")
+        Node<E>[] previous = (Node<E>[]) new Node<?>[MAX_LEVEL];
+        Node<E> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && comparator.compare(node.next[i].element, element) < 0) {
+                node = node.next[i];
+            }
+            previous[i] = node;
+        }
+        Node<E> removed = node.next[0];
+        if (removed == null || comparator.compare(removed.element, element) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (previous[i].next[i] == removed) {
+                previous[i].spans[i] += removed.spans[i] - 1;
+                previous[i].next[i] = removed.next[i];
+            } else {
+                previous[i].spans[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the rank of an element.
+     *
+     * @param element the element
+     * @return the rank of the element, from 0 for the first one, or -1 if it is not in the list
+     */
+    public int rankOf(E element) {
+        int rank = 0;
+        Node<E> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && comparator.compare(node.next[i].element, element) <= 0) {
+                rank += node.spans[i];
+                node = node.next[i];
+            }
+            if (node != head && comparator.compare(node.element, element) == 0) {
+                return rank - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the element at a rank.
+     *
+     * @param rank the rank, from 0 for the first element
+     * @return the element
+     */
+    public E get(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + size);
+        }
+        return nodeAt(rank).element;
+    }
+
+    /**
+     * Gets the elements from a rank on, finding the first one in O(log n) and following the list for the others.
+     *
+     * @param rank the rank of the first element
+     * @param count the maximum number of elements
+     * @return the elements, fewer than count when the list ends before
+     */
+    public List<E> subList(int rank, int count) {
+        List<E> elements = new ArrayList<>(Math.max(0, Math.min(count, size - rank)));
+        if (rank < 0 || rank >= size) {
+            return elements;
+        }
+        for (Node<E> node = nodeAt(rank); node != null && elements.size() < count; node = node.next[0]) {
+            elements.add(node.element);
+        }
+        return elements;
+    }
+
+    /**
+     * Finds the node at a rank.
+     *
+     * @param rank the rank, between 0 and the size excluded
+     * @return the node
+     */
+    private Node<E> nodeAt(int rank) {
+        int target = rank + 1;
+        int traversed = 0;
+        Node<E> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.spans[i] <= target) {
+                traversed += node.spans[i];
+                node = node.next[i];
+            }
+            if (traversed == target) {
+                return node;
+            }
+        }
+        throw new IllegalStateException("Inconsistent spans at rank " + rank);
+    }
+
+    /**
+     * Draws the number of levels of a new node.
+     *
+     * @return the number of levels, between 1 and MAX_LEVEL
+     */
+    private int randomLevel() {
+        // two random bits per level: each level is kept with probability 1/4
+        long bits = random.nextLong();
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (bits & 3) == 0) {
+            nodeLevel++;
+            bits >>>= 2;
+        }
+        return nodeLevel;
+    }
+
+    /**
+     * The Node class is an element of the skip list with its links.
+     *
+     * @param <E> the type of the element
+     */
+    private static final class Node<E> {
+        private final E element;
+        private final Node<E>[] next;
+        private final int[] spans;
+
+        /**
+         * Constructs a node linked at the specified number of levels.
+         *
+         * @param element the element
+         * @param levels the number of levels
+         */
+        @SuppressWarnings("unchecked")
+        Node(E element, int levels) {
+            this.element = element;
+            this.next = (Node<E>[]) new Node<?>[levels];
+            this.spans = new int[levels];
+        }
+    }
+}
@@ -21,7 +21,8 @@ public class SaveAsWindow extends PickSaveWindow {
             throw new RuntimeException(e);
         }
         gameSave.setFile(file);
-        gameSave.saveFile();
+        gameSave.setStore(null);
+        gameSave.saveFileAsync();
     }
 
     @Override
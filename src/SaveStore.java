@@ -0,0 +1,79 @@
+import java.io.File;
+import java.util.List;
+
+/**
+ * The SaveStore interface represents where the game saves of the players are kept.
+ * Saves are identified by the username of the player.
+ *
+ * @see FileSaveStore
+ * @see IndexedSaveStore
+ */
+public interface SaveStore {
+    /**
+     * Loads the save of a player, or creates an empty one if the player has none.
+     *
+     * @param username the username of the player
+     * @return the save of the player
+     */
+    GameSave load(String username);
+
+    /**
+     * Stores a save, replacing the previous save of the same player.
+     *
+     * @param gameSave the save to store
+     */
+    void save(GameSave gameSave);
+
+    /**
+     * Checks whether a player has a save.
+     *
+     * @param username the username of the player
+     * @return true if the player has a save, false otherwise
+     */
+    boolean exists(String username);
+
+    /**
+     * Gets the file of the guess journal of a player.
+     *
+     * @param username the username of the player
+     * @return the journal file
+     * @see GuessJournal
+     */
+    File getJournalFile(String username);
+
+    /**
+     * Lists the usernames of every player with a save.
+     *
+     * @return the usernames
+     */
+    List<String> listUsernames();
+
+    /**
+     * Gets the store used by the application, chosen with the "hangman.saveStore" system property:
+     * "files" (the default) for one file per player in the saves folder, "indexed" for a single indexed file.
+     *
+     * @return the store of the application
+     */
+    static SaveStore getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Holds the default store, created on first use.
+     */
+    final class Holder {
+        private static final SaveStore DEFAULT = create(System.getProperty("hangman.saveStore", "files"));
+
+        private Holder() {
+        }
+
+        private static SaveStore create(String type) {
+            GameSave.createSaveFolder();
+            return switch (type) {
+                case "files" -> new FileSaveStore(new File("saves"));
+                case "indexed" -> new IndexedSaveStore(new File("saves/saves.db"));
+                default -> throw new IllegalArgumentException("Unknown save store: " + type);
+            };
+        }
+    }
+}
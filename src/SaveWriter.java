@@ -0,0 +1,159 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SaveWriter class writes game saves on a background thread, so saving never blocks the Event Dispatch Thread.
+ * The state of a save is copied when it is submitted. When a save is submitted again before it was written,
+ * only its latest state is written. Pending saves are flushed when the application exits.
+ */
+public class SaveWriter {
+    /**
+     * The maximum number of different saves waiting to be written, submitting more waits for room in the queue.
+     */
+    public static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * The maximum time the application waits for pending saves when it exits.
+     */
+    private static final long EXIT_FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private static final SaveWriter INSTANCE = new SaveWriter();
+
+    private final BlockingQueue<GameSave> queue;
+    private final Map<GameSave, GameSave> pendingStates;
+    private final Object flushLock;
+    private int unwrittenSaves;
+    private GameSave writingSave;
+
+    /**
+     * Constructs a SaveWriter and starts its thread.
+     */
+    private SaveWriter() {
+        queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        pendingStates = new HashMap<>();
+        flushLock = new Object();
+        Thread thread = new Thread(this::run, "save-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(EXIT_FLUSH_TIMEOUT_MILLIS), "save-writer-flush"));
+    }
+
+    /**
+     * Gets the save writer of the application.
+     *
+     * @return the save writer
+     */
+    public static SaveWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Submits a save to be written in the background.
+     * If the queue is full, the calling thread waits until there is room.
+     *
+     * @param gameSave the save to write
+     */
+    public void submit(GameSave gameSave) {
+        GameSave state = gameSave.copy();
+        synchronized (flushLock) {
+            if (pendingStates.put(gameSave, state) != null) {
+                return;
+            }
+            unwrittenSaves++;
+        }
+        try {
+            queue.put(gameSave);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write(gameSave);
+        }
+    }
+
+    /**
+     * Waits until every submitted save has been written.
+     */
+    public void flush() {
+        flush(0);
+    }
+
+    /**
+     * Waits until every submitted save has been written, or until the timeout expires.
+     *
+     * @param timeoutMillis the maximum time to wait, 0 to wait without limit
+     */
+    public void flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (flushLock) {
+            while (unwrittenSaves > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (timeoutMillis > 0 && remaining <= 0) {
+                    return;
+                }
+                try {
+                    flushLock.wait(timeoutMillis > 0 ? remaining : 0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until the submitted states of a save have been written, without waiting for the other saves.
+     *
+     * @param gameSave the submitted save
+     */
+    public void flush(GameSave gameSave) {
+        synchronized (flushLock) {
+            while (pendingStates.containsKey(gameSave) || writingSave == gameSave) {
+                try {
+                    flushLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the queued saves, one after another.
+     */
+    private void run() {
+        while (true) {
+            try {
+                write(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the latest submitted state of a save.
+     *
+     * @param gameSave the submitted save
+     */
+    private void write(GameSave gameSave) {
+        GameSave state;
+        synchronized (flushLock) {
+            state = pendingStates.remove(gameSave);
+            writingSave = gameSave;
+        }
+        try {
+            state.saveFile();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (flushLock) {
+                unwrittenSaves--;
+                writingSave = null;
+                flushLock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import javax.swing.*;
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+
+/**
+ * The Startup class runs the startup pipeline of the application.
+ * While the first dialog is showing, the dictionary and the word statistics are loaded, the images are decoded
+ * and the Swing classes are loaded in parallel on background threads, so the game window opens without waiting.
+ * With the "hangman.startupTiming" system property set to true, the duration of each phase
+ * and the time to the first game frame are printed to the standard error.
+ * <p>
+ * The training run (Program --train) goes through the same startup work without any dialog, then exits.
+ * Run with -XX:ArchiveClassesAtExit, it records a class-data sharing archive of every class loaded at startup,
+ * which later launches map with -XX:SharedArchiveFile instead of loading the classes again.
+ */
+public final class Startup {
+    public static final String TIMING_PROPERTY = "hangman.startupTiming";
+
+    private static final boolean TIMING = Boolean.getBoolean(TIMING_PROPERTY);
+    private static final long START_NANOS = System.nanoTime();
+
+    /**
+     * The classes of the game windows, loaded and initialized ahead of the first window.
+     */
+    private static final String[] WINDOW_CLASSES = {
+            "javax.swing.JFrame",
+            "javax.swing.JPanel",
+            "javax.swing.JButton",
+            "javax.swing.JLabel",
+            "javax.swing.JMenuBar",
+            "javax.swing.JMenu",
+            "javax.swing.JMenuItem",
+            "javax.swing.JList",
+            "javax.swing.JComboBox",
+            "javax.swing.JScrollPane",
+            "javax.swing.JTextArea",
+            "javax.swing.JFileChooser",
+            "javax.swing.ImageIcon",
+            "Hangman",
+            "HangmanEngine",
+            "AdminOptions",
+            "OpenSaveWindow",
+            "SaveAsWindow",
+            "AboutWindow",
+    };
+
+    private Startup() {
+    }
+
+    /**
+     * Starts the warm-up phases on background threads.
+     */
+    public static void warmUp() {
+        startPhase("dictionary", Dictionary::getShared);
+        startPhase("word statistics", WordStatistics::getShared);
+        startPhase("images", ImageCache::preload);
+        startPhase("window classes", Startup::loadWindowClasses);
+    }
+
+    /**
+     * Runs the startup work in the calling thread, without showing anything:
+     * loads the dictionary and the word statistics, decodes the images, loads the window classes
+     * and, when a screen is available, builds a game window which is then disposed.
+     */
+    public static void train() {
+        runPhase("dictionary", Dictionary::getShared);
+        runPhase("word statistics", WordStatistics::getShared);
+        runPhase("images", ImageCache::preload);
+        runPhase("window classes", Startup::loadWindowClasses);
+        if (!GraphicsEnvironment.isHeadless()) {
+            runPhase("game window", Startup::buildGameWindow);
+        }
+        mark("training done");
+    }
+
+    /**
+     * Records that the startup reached a milestone, printing the time elapsed since the start when timing is enabled.
+     *
+     * @param milestone the name of the milestone
+     */
+    public static void mark(String milestone) {
+        if (TIMING) {
+            System.err.printf(Locale.ROOT, "[startup] %-24s at %8.1f ms%n", milestone, (System.nanoTime() - START_NANOS) / 1e6);
+        }
+    }
+
+    /**
+     * Runs a warm-up phase on its own daemon thread.
+     *
+     * @param name the name of the phase
+     * @param phase the work of the phase
+     */
+    private static void startPhase(String name, Runnable phase) {
+        Thread thread = new Thread(() -> runPhase(name, phase), "warm-up " + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs a warm-up phase in the calling thread, printing its duration when timing is enabled.
+     *
+     * @param name the name of the phase
+     * @param phase the work of the phase
+     */
+    private static void runPhase(String name, Runnable phase) {
+        long start = System.nanoTime();
+        try {
+            phase.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        if (TIMING) {
+            System.err.printf(Locale.ROOT, "[startup] %-24s in %8.1f ms, done at %8.1f ms%n",
+                    name, (System.nanoTime() - start) / 1e6, (System.nanoTime() - START_NANOS) / 1e6);
+        }
+    }
+
+    /**
+     * Builds a game window on the Event Dispatch Thread, lays it out and disposes it, without showing it.
+     * The game is played on a save kept nowhere, so nothing is written.
+     */
+    private static void buildGameWindow() {
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                DictionaryWord word = Dictionary.getShared().pickRandomWord(Difficulty.Easy);
+                Hangman hangman = new Hangman(new GameSave(null, "training", word, 0, 0));
+                hangman.pack();
+                hangman.dispose();
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Loads and initializes the classes of the game windows.
+     */
+    private static void loadWindowClasses() {
+        ClassLoader classLoader = Startup.class.getClassLoader();
+        for (String className : WINDOW_CLASSES) {
+            try {
+                Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
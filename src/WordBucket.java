@@ -0,0 +1,233 @@
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The WordBucket class stores the words of a single difficulty level in a compact array.
+ * A bucket is an immutable snapshot, exposed as a read-only list: adding or removing a word returns a new bucket,
+ * so a reader holding a bucket never sees it change and never needs a lock.
+ * Appending does not copy the words: the new bucket writes its word after the last one in the array it shares
+ * with the previous bucket, which never reads past its own size. Only the first append after a given size
+ * may do so, any other copies the array.
+ * A bucket opened from a binary dictionary decodes each word the first time it is read. Removing a word from it
+ * decodes nothing: the new bucket keeps the positions in the binary dictionary of the words it has not decoded.
+ */
+public class WordBucket extends AbstractList<DictionaryWord> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final DictionaryWord[] words;
+    private final int size;
+    private final AtomicInteger filled;
+    private final BinaryDictionary source;
+    private final Difficulty difficulty;
+    private final int[] sourceIndexes;
+
+    /**
+     * Constructs an empty WordBucket.
+     */
+    public WordBucket() {
+        this(new DictionaryWord[INITIAL_CAPACITY], 0, null, null, null);
+    }
+
+    /**
+     * Constructs a WordBucket backed by the words of a binary dictionary, nothing is decoded yet.
+     *
+     * @param source the binary dictionary holding the words
+     * @param difficulty the difficulty level of the words
+     */
+    public WordBucket(BinaryDictionary source, Difficulty difficulty) {
+        this(new DictionaryWord[Math.max(source.getWordCount(difficulty), INITIAL_CAPACITY)],
+                source.getWordCount(difficulty), source, difficulty, null);
+    }
+
+    /**
+     * Constructs a WordBucket over the first words of an array, which the bucket owns.
+     *
+     * @param words the array of words
+     * @param size the number of words
+     * @param source the binary dictionary decoding the words not read yet, or null if every word is in the array
+     * @param difficulty the difficulty level of the words of the binary dictionary
+     * @param sourceIndexes the positions in the binary dictionary of the first words, or null if they are the same
+     *                      as in the bucket; the words after them are always in the array
+     */
+    private WordBucket(DictionaryWord[] words, int size, BinaryDictionary source, Difficulty difficulty, int[] sourceIndexes) {
+        this(words, size, new AtomicInteger(size), source, difficulty, sourceIndexes);
+    }
+
+    /**
+     * Constructs a WordBucket sharing the array of another bucket.
+     *
+     * @param words the array of words
+     * @param size the number of words
+     * @param filled the number of words written in the array, shared by every bucket of the array
+     * @param source the binary dictionary decoding the words not read yet, or null if every word is in the array
+     * @param difficulty the difficulty level of the words of the binary dictionary
+     * @param sourceIndexes the positions in the binary dictionary of the first words, or null if they are the same
+     *                      as in the bucket; the words after them are always in the array
+     */
+    private WordBucket(DictionaryWord[] words, int size, AtomicInteger filled, BinaryDictionary source, Difficulty difficulty,
+                       int[] sourceIndexes) {
+        this.words = words;
+        this.size = size;
+        this.filled = filled;
+        this.source = source;
+        this.difficulty = difficulty;
+        this.sourceIndexes = sourceIndexes;
+    }
+
+    /**
+     * Gets the position in the binary dictionary of a word not decoded yet.
+     *
+     * @param index the position of the word in the bucket
+     * @return the position of the word in the binary dictionary
+     */
+    private int sourceIndex(int index) {
+        return sourceIndexes == null ? index : sourceIndexes[index];
+    }
+
+    /**
+     * Gets the word at the specified position.
+     *
+     * @param index the position of the word
+     * @return the word at the specified position
+     */
+    @Override
+    public DictionaryWord get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        DictionaryWord word = words[index];
+        if (word == null) {
+            // two readers may decode the same word, both get an equal word
+            word = source.decodeWord(difficulty, sourceIndex(index));
+            words[index] = word;
+        }
+        return word;
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of the raw value of a word, like BinaryDictionary.hashValue.
+     * A word not decoded yet is hashed in the binary dictionary, and stays not decoded.
+     *
+     * @param index the position of the word
+     * @return the hash of the word
+     */
+    int valueHash(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        DictionaryWord word = words[index];
+        if (word == null) {
+            return source.hashWord(difficulty, sourceIndex(index));
+        }
+        return BinaryDictionary.hashValue(word.getRawValue().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks whether the raw value of a word is the specified value, without decoding the word.
+     *
+     * @param index the position of the word
+     * @param value the UTF-8 bytes of the value
+     * @return true if the word has this value, false otherwise
+     */
+    boolean valueEquals(int index, byte[] value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        DictionaryWord word = words[index];
+        if (word == null) {
+            return source.wordEquals(difficulty, sourceIndex(index), value);
+        }
+        return Arrays.equals(word.getRawValue().getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    /**
+     * Gets the number of words in the bucket.
+     *
+     * @return the number of words
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a bucket with a word appended at the end, growing the array when needed.
+     *
+     * @param word the word to append
+     * @return the new bucket
+     */
+    WordBucket withAppended(DictionaryWord word) {
+        if (size < words.length && filled.compareAndSet(size, size + 1)) {
+            words[size] = word;
+            return new WordBucket(words, size + 1, filled, source, difficulty, sourceIndexes);
+        }
+        DictionaryWord[] grown = Arrays.copyOf(words, Math.max(size + (size >> 1) + 1, INITIAL_CAPACITY));
+        Arrays.fill(grown, size, grown.length, null);
+        grown[size] = word;
+        return new WordBucket(grown, size + 1, source, difficulty, sourceIndexes);
+    }
+
+    /**
+     * Returns a bucket without the word at the specified position, keeping the order of the other words.
+     * The words not decoded yet stay so: their positions in the binary dictionary are copied around the removed one.
+     *
+     * @param index the position of the word to remove
+     * @return the new bucket
+     */
+    WordBucket without(int index) {
+        DictionaryWord[] remaining = new DictionaryWord[Math.max(size - 1, INITIAL_CAPACITY)];
+        System.arraycopy(words, 0, remaining, 0, index);
+        System.arraycopy(words, index + 1, remaining, index, size - index - 1);
+        if (source == null) {
+            return new WordBucket(remaining, size - 1, null, null, null);
+        }
+        int sourceCount = sourceIndexes == null ? source.getWordCount(difficulty) : sourceIndexes.length;
+        int[] remainingIndexes = sourceIndexes;
+        if (index < sourceCount) {
+            remainingIndexes = new int[sourceCount - 1];
+            if (sourceIndexes == null) {
+                for (int i = 0; i < remainingIndexes.length; i++) {
+                    remainingIndexes[i] = i < index ? i : i + 1;
+                }
+            } else {
+                System.arraycopy(sourceIndexes, 0, remainingIndexes, 0, index);
+                System.arraycopy(sourceIndexes, index + 1, remainingIndexes, index, sourceCount - index - 1);
+            }
+        }
+        return new WordBucket(remaining, size - 1, source, difficulty, remainingIndexes);
+    }
+
+    /**
+     * Finds the position of the specified word instance.
+     * The words not decoded yet cannot be this instance, so they are not decoded.
+     *
+     * @param word the word to find
+     * @return the position of the word, or -1 if it is not in the bucket
+     */
+    int indexOf(DictionaryWord word) {
+        for (int i = 0; i < size; i++) {
+            if (words[i] == word) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the position of the first word with the specified raw value.
+     *
+     * @param value the raw value of the word
+     * @return the position of the word, or -1 if no word has this value
+     */
+    int indexOfValue(String value) {
+        for (int i = 0; i < size; i++) {
+            if (get(i).getRawValue().equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
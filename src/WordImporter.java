@@ -0,0 +1,403 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The WordImporter class adds the words of word list files to a dictionary in bulk.
+ * The files hold words separated by spaces, line breaks, commas, semicolons or '|';
+ * a difficulty name (Easy, Medium, Hard) gives the difficulty of the following words of its line,
+ * so files in the words.txt format keep their difficulties.
+ * <p>
+ * The words are normalized in parallel with a fork-join pool: accents are removed and the words are lower-cased,
+ * then the words with other characters than A to Z are rejected, since the game only has buttons for these letters.
+ * The words without a difficulty get one from their length. The words already in the dictionary or imported twice
+ * are skipped, then the dictionary is saved once.
+ */
+public class WordImporter {
+    public static final int MIN_LENGTH = 2;
+    public static final int MAX_LENGTH = 64;
+
+    /**
+     * The length up to which a word without difficulty is Easy.
+     */
+    public static final int EASY_MAX_LENGTH = 8;
+
+    /**
+     * The length up to which a word without difficulty is Medium, longer words are Hard.
+     */
+    public static final int MEDIUM_MAX_LENGTH = 12;
+
+    /**
+     * The number of words below which a range of words is normalized by a single worker.
+     */
+    private static final int LEAF_SIZE = 4096;
+
+    /**
+     * The time in milliseconds between two reports of the progress of the validation.
+     */
+    private static final long VALIDATION_REPORT_INTERVAL = 100;
+
+    private final Dictionary dictionary;
+    private ProgressListener progressListener;
+
+    /**
+     * Receives the progress of an import. Every phase is reported from the importing thread,
+     * the validation too while the fork-join workers normalize the words.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Reports the progress of a phase of the import.
+         *
+         * @param phase the name of the phase
+         * @param done the amount of work done in the phase
+         * @param total the total amount of work of the phase
+         */
+        void progress(String phase, long done, long total);
+    }
+
+    /**
+     * The outcome of an import.
+     *
+     * @param read the number of words read
+     * @param invalid the number of words rejected by the normalization
+     * @param duplicates the number of words skipped because they were already in the dictionary or imported twice
+     * @param added the number of words added, by difficulty level
+     */
+    public record Report(int read, int invalid, int duplicates, Map<Difficulty, Integer> added) {
+        /**
+         * Gets the total number of words added.
+         *
+         * @return the number of words added
+         */
+        public int getAddedCount() {
+            return added.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            return getAddedCount() + " words added " + added + ", " + read + " read, "
+                    + invalid + " invalid, " + duplicates + " duplicates";
+        }
+    }
+
+    /**
+     * Constructs a WordImporter adding words to the specified dictionary.
+     *
+     * @param dictionary the dictionary the words are added to
+     */
+    public WordImporter(Dictionary dictionary) {
+        this.dictionary = dictionary;
+        this.progressListener = (phase, done, total) -> {
+        };
+    }
+
+    /**
+     * Sets the listener receiving the progress of the imports.
+     *
+     * @param progressListener the progress listener
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Imports the words of files into the dictionary, then saves the dictionary.
+     * The dictionary must not be changed by another thread during the import.
+     *
+     * @param sources the word list files, or directories whose files are all imported
+     * @return the outcome of the import
+     * @throws IOException if a file cannot be read
+     */
+    public Report importWords(List<File> sources) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (File source : sources) {
+            collectFiles(source, files);
+        }
+        List<String> tokens = new ArrayList<>();
+        List<Difficulty> tokenDifficulties = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            progressListener.progress("Reading", i, files.size());
+            readTokens(files.get(i), tokens, tokenDifficulties);
+        }
+        progressListener.progress("Reading", files.size(), files.size());
+
+        String[] values = tokens.toArray(new String[0]);
+        Difficulty[] difficulties = tokenDifficulties.toArray(new Difficulty[0]);
+        validate(values, difficulties);
+
+        int invalid = 0;
+        int duplicates = 0;
+        Set<String> imported = new HashSet<>();
+        List<DictionaryWord> words = new ArrayList<>();
+        Map<Difficulty, Integer> added = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            added.put(difficulty, 0);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i % LEAF_SIZE == 0) {
+                progressListener.progress("Removing duplicates", i, values.length);
+            }
+            if (values[i] == null) {
+                invalid++;
+            } else if (!imported.add(values[i]) || dictionary.containsWord(values[i])) {
+                duplicates++;
+            } else {
+                words.add(new DictionaryWord(values[i], difficulties[i]));
+                added.merge(difficulties[i], 1, Integer::sum);
+            }
+        }
+        progressListener.progress("Saving", 0, 1);
+        if (!words.isEmpty()) {
+            dictionary.addWords(words);
+            dictionary.saveDictionary();
+        }
+        progressListener.progress("Saving", 1, 1);
+        return new Report(values.length, invalid, duplicates, added);
+    }
+
+    /**
+     * Normalizes a word: removes its accents and lower-cases it.
+     *
+     * @param token the word as read
+     * @return the normalized word, or null if it has other characters than A to Z or an unsupported length
+     */
+    public static String normalize(String token) {
+        String value = token;
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character > 0x7F) {
+                value = Normalizer.normalize(value, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        char[] characters = new char[value.length()];
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character >= 'a' && character <= 'z') {
+                characters[length++] = character;
+            } else if (character >= 'A' && character <= 'Z') {
+                characters[length++] = (char) (character - 'A' + 'a');
+            } else if (Character.getType(character) != Character.NON_SPACING_MARK) {
+                return null;
+            }
+        }
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return null;
+        }
+        return new String(characters, 0, length);
+    }
+
+    /**
+     * Gives a difficulty to a word without one, from its length.
+     *
+     * @param value the normalized word
+     * @return the difficulty level
+     */
+    public static Difficulty assignDifficulty(String value) {
+        if (value.length() <= EASY_MAX_LENGTH) {
+            return Difficulty.Easy;
+        }
+        return value.length() <= MEDIUM_MAX_LENGTH ? Difficulty.Medium : Difficulty.Hard;
+    }
+
+    /**
+     * Adds a file, or the files of a directory and its subdirectories, to a list.
+     *
+     * @param source the file or directory
+     * @param files the list of files
+     * @throws IOException if the source does not exist
+     */
+    private static void collectFiles(File source, List<File> files) throws IOException {
+        if (source.isFile()) {
+            files.add(source);
+            return;
+        }
+        File[] children = source.listFiles();
+        if (children == null) {
+            throw new IOException("No such file or directory: " + source);
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            collectFiles(child, files);
+        }
+    }
+
+    /**
+     * Reads the words of a file.
+     *
+     * @param file the word list file
+     * @param tokens the list the words are added to
+     * @param tokenDifficulties the list the difficulty of each word is added to, null when the file gives none
+     * @throws IOException if the file cannot be read
+     */
+    private static void readTokens(File file, List<String> tokens, List<Difficulty> tokenDifficulties) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Difficulty lineDifficulty = null;
+                int start = 0;
+                for (int end = 0; end <= line.length(); end++) {
+                    if (end < line.length() && !isSeparator(line.charAt(end))) {
+                        continue;
+                    }
+                    if (end > start) {
+                        String token = line.substring(start, end);
+                        Difficulty difficulty = parseDifficulty(token);
+                        if (difficulty != null) {
+                            lineDifficulty = difficulty;
+                        } else {
+                            tokens.add(token);
+                            tokenDifficulties.add(lineDifficulty);
+                        }
+                    }
+                    start = end + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a character separates words.
+     *
+     * @param character the character
+     * @return true if the character is a separator, false otherwise
+     */
+    private static boolean isSeparator(char character) {
+        return character == '|' || character == ',' || character == ';' || Character.isWhitespace(character);
+    }
+
+    /**
+     * Parses a difficulty name.
+     *
+     * @param token the read word
+     * @return the difficulty level, or null if the word is not a difficulty name
+     */
+    private static Difficulty parseDifficulty(String token) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.name().equals(token)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalizes the words in place on the fork-join workers, reporting their progress from the importing thread.
+     *
+     * @param values the read words, replaced by their normalized values, or null for the invalid words
+     * @param difficulties the difficulties of the words, given to the words without one
+     * @throws IOException if the thread is interrupted during the validation
+     */
+    private void validate(String[] values, Difficulty[] difficulties) throws IOException {
+        AtomicLong done = new AtomicLong();
+        ForkJoinTask<Void> normalization = ForkJoinPool.commonPool()
+                .submit(new Normalization(values, difficulties, 0, values.length, done));
+        while (true) {
+            progressListener.progress("Validating", done.get(), values.length);
+            try {
+                normalization.get(VALIDATION_REPORT_INTERVAL, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                // still validating
+            } catch (InterruptedException e) {
+                normalization.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IOException("Import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        progressListener.progress("Validating", values.length, values.length);
+    }
+
+    /**
+     * Normalizes a range of words in place and gives a difficulty to the words without one,
+     * splitting the range between workers while it is larger than LEAF_SIZE.
+     */
+    private class Normalization extends RecursiveAction {
+        private final String[] values;
+        private final Difficulty[] difficulties;
+        private final int start;
+        private final int end;
+        private final AtomicLong done;
+
+        Normalization(String[] values, Difficulty[] difficulties, int start, int end, AtomicLong done) {
+            this.values = values;
+            this.difficulties = difficulties;
+            this.start = start;
+            this.end = end;
+            this.done = done;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                        new Normalization(values, difficulties, start, middle, done),
+                        new Normalization(values, difficulties, middle, end, done)
+                );
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                String value = normalize(values[i]);
+                values[i] = value;
+                if (value != null && difficulties[i] == null) {
+                    difficulties[i] = assignDifficulty(value);
+                }
+            }
+            done.addAndGet(end - start);
+        }
+    }
+
+    /**
+     * Imports word lists into words.txt, or exports the dictionary.
+     *
+     * @param args import file-or-directory... | export file
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("export")) {
+            Dictionary.getShared().writeText(new File(args[1]));
+            return;
+        }
+        if (args.length < 2 || !args[0].equals("import")) {
+            System.err.println("Usage: WordImporter import <file or directory>... | export <file>");
+            System.exit(2);
+        }
+        List<File> sources = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            sources.add(new File(args[i]));
+        }
+        WordImporter importer = new WordImporter(Dictionary.getShared());
+        long[] lastReport = {0};
+        importer.setProgressListener((phase, done, total) -> {
+            long now = System.nanoTime();
+            if (done == total || now - lastReport[0] > 500_000_000L) {
+                lastReport[0] = now;
+                System.err.printf("%s %d/%d%n", phase, done, total);
+            }
+        });
+        long start = System.nanoTime();
+        Report report = importer.importWords(sources);
+        System.out.println(report + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,759 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The WordIndex class indexes the words of a dictionary for searching, by their upper-case value.
+ * For each difficulty level, the words get an id and are kept with their upper-case value in three structures
+ * of primitive arrays:
+ * <ul>
+ * <li>the ids sorted by value, where the words starting with a prefix are one range found by binary search,</li>
+ * <li>an open-addressing hash table of the ids by value, with linear probing, which tells in constant time
+ * whether a word is already in the dictionary,</li>
+ * <li>the ids of the words containing each pair of letters, which give the candidates of a substring search.</li>
+ * </ul>
+ * Like the word lists of the dictionary, the index of each difficulty is an immutable snapshot: readers never block,
+ * and a search result keeps showing the words of the snapshot it was found in. Adding or removing a word publishes
+ * a new snapshot, sharing the arrays of the previous one wherever the previous one never reads the changed part:
+ * the words, their values, the hash table and the pairs of letters are only appended to, past the ids of the older
+ * snapshots, and a removed word is only marked as removed, its id is not reused.
+ * <p>
+ * The words added since the sorted ids were built are kept apart, in a short sorted array of recent ids which is
+ * copied on each addition and merged into the sorted ids once it holds about the square root of their number.
+ * Removing a word copies the array holding it without it, which is O(n) in the number of words of its difficulty:
+ * a single array copy of ints, a few milliseconds for millions of words. The structures are rebuilt once half
+ * of the ids belong to removed words.
+ */
+public class WordIndex {
+    /**
+     * The number of symbols of a pair of letters: the 26 letters and one symbol for any other character.
+     */
+    private static final int SYMBOLS = 27;
+    private static final int BIGRAMS = SYMBOLS * SYMBOLS;
+
+    /**
+     * The number of characters of a value packed into an int to sort the values.
+     */
+    private static final int PREFIX_LENGTH = 6;
+
+    /**
+     * The number of recent ids above which they are merged into the sorted ids, when it exceeds their square root.
+     */
+    private static final int MIN_RECENT_COUNT = 64;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private volatile Bucket[] buckets;
+
+    /**
+     * Constructs a WordIndex of every word of a dictionary.
+     *
+     * @param dictionary the dictionary to index
+     */
+    public WordIndex(Dictionary dictionary) {
+        Bucket[] built = new Bucket[Difficulty.values().length];
+        for (Difficulty difficulty : Difficulty.values()) {
+            built[difficulty.ordinal()] = Bucket.build(dictionary.getWordsByDifficulty(difficulty).toArray(new DictionaryWord[0]));
+        }
+        buckets = built;
+    }
+
+    /**
+     * Checks whether a word with the specified value is in the dictionary, whatever its difficulty, ignoring case.
+     *
+     * @param value the value of the word
+     * @return true if the dictionary holds the word, false otherwise
+     */
+    public boolean contains(String value) {
+        String key = value.toUpperCase();
+        for (Bucket bucket : buckets) {
+            if (bucket.find(key) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches the words of a difficulty level containing the query, ignoring case.
+     * The words starting with the query come first, all of them in alphabetical order, without being copied;
+     * then come the first maxOtherMatches words found containing the query elsewhere, in alphabetical order too.
+     * The returned list is the result of the search in the index as it was: later edits do not change it.
+     *
+     * @param difficulty the difficulty level of the words
+     * @param query the searched text
+     * @param maxOtherMatches the maximum number of words containing the query but not starting with it
+     * @return the matching words
+     */
+    public List<DictionaryWord> search(Difficulty difficulty, String query, int maxOtherMatches) {
+        return buckets[difficulty.ordinal()].search(query.toUpperCase(), maxOtherMatches);
+    }
+
+    /**
+     * Adds a word to the index. The edits must be made one at a time, under the write lock of the dictionary.
+     *
+     * @param word the added word
+     */
+    void add(DictionaryWord word) {
+        Bucket[] next = buckets.clone();
+        int position = word.getDifficulty().ordinal();
+        next[position] = next[position].withAdded(word);
+        buckets = next;
+    }
+
+    /**
+     * Removes a word instance from the index. The edits must be made one at a time, under the write lock of the dictionary.
+     *
+     * @param word the removed word
+     */
+    void remove(DictionaryWord word) {
+        Bucket[] next = buckets.clone();
+        int position = word.getDifficulty().ordinal();
+        next[position] = next[position].withRemoved(word);
+        buckets = next;
+    }
+
+    /**
+     * Gets the symbol of a character in a pair of letters.
+     *
+     * @param character an upper-case character
+     * @return the symbol, from 1 to 26 for the letters, 0 for any other character
+     */
+    private static int symbol(char character) {
+        return character >= 'A' && character <= 'Z' ? character - 'A' + 1 : 0;
+    }
+
+    /**
+     * Gets the pair of letters starting at a position of an upper-case value.
+     *
+     * @param value the upper-case value
+     * @param position the position of the first character
+     * @return the code of the pair
+     */
+    private static int bigram(String value, int position) {
+        return symbol(value.charAt(position)) * SYMBOLS + symbol(value.charAt(position + 1));
+    }
+
+    /**
+     * Mixes the hash code of a value to spread it over the hash table.
+     *
+     * @param key the upper-case value
+     * @return the mixed hash
+     */
+    private static int hash(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The index of the words of one difficulty level, an immutable snapshot.
+     * The arrays shared with later snapshots are only written past what this snapshot reads:
+     * the ids from entryCount on, and the postings past the sizes of this snapshot.
+     */
+    private static final class Bucket {
+        private final DictionaryWord[] entries;
+        private final String[] keys;
+        private final int entryCount;
+        private final long[] removed;
+        private final int removedCount;
+        private final int[] sorted;
+        private final int[] recent;
+        private final int[] table;
+        private final int[][] postings;
+        private final int[] postingSizes;
+
+        /**
+         * Constructs a Bucket from its structures.
+         *
+         * @param entries the words by id
+         * @param keys the upper-case values by id
+         * @param entryCount the number of ids, the removed ones included
+         * @param removed the bits of the removed ids
+         * @param removedCount the number of removed ids
+         * @param sorted the ids sorted by value, but the recent ones
+         * @param recent the ids added since the sorted ids were built, sorted by value
+         * @param table the hash table of the ids, holding id + 1 in each used slot
+         * @param postings the ids of the words containing each pair of letters
+         * @param postingSizes the number of ids of each posting
+         */
+        private Bucket(DictionaryWord[] entries, String[] keys, int entryCount, long[] removed, int removedCount,
+                       int[] sorted, int[] recent, int[] table, int[][] postings, int[] postingSizes) {
+            this.entries = entries;
+            this.keys = keys;
+            this.entryCount = entryCount;
+            this.removed = removed;
+            this.removedCount = removedCount;
+            this.sorted = sorted;
+            this.recent = recent;
+            this.table = table;
+            this.postings = postings;
+            this.postingSizes = postingSizes;
+        }
+
+        /**
+         * Builds every structure from the words, which get their ids in alphabetical order.
+         *
+         * @param words the words to index
+         * @return the new bucket
+         */
+        static Bucket build(DictionaryWord[] words) {
+            String[] wordKeys = new String[words.length];
+            for (int i = 0; i < words.length; i++) {
+                wordKeys[i] = words[i].getRawValue().toUpperCase();
+            }
+            int[] order = sortedOrder(wordKeys);
+            DictionaryWord[] entries = new DictionaryWord[words.length];
+            String[] keys = new String[words.length];
+            for (int id = 0; id < words.length; id++) {
+                entries[id] = words[order[id]];
+                keys[id] = wordKeys[order[id]];
+            }
+            int[] sorted = new int[words.length];
+            for (int id = 0; id < words.length; id++) {
+                sorted[id] = id;
+            }
+            int[] table = new int[Integer.highestOneBit(Math.max(16, words.length) * 4 - 1)];
+            for (int id = 0; id < words.length; id++) {
+                insertInTable(table, keys, id);
+            }
+            int[][] postings = new int[BIGRAMS][];
+            int[] postingSizes = new int[BIGRAMS];
+            buildPostings(keys, words.length, postings, postingSizes);
+            return new Bucket(entries, keys, words.length, new long[0], 0, sorted, NO_IDS, table, postings, postingSizes);
+        }
+
+        /**
+         * Sorts the positions of keys by key. The first characters of each key are packed with its position in a long,
+         * so the positions are sorted as primitives; only the keys sharing these characters are then compared.
+         *
+         * @param keys the upper-case values
+         * @return the positions of the keys in ascending order of key
+         */
+        private static int[] sortedOrder(String[] keys) {
+            long[] packed = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                packed[i] = (long) prefixCode(keys[i]) << 32 | i;
+            }
+            Arrays.sort(packed);
+            int[] order = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                order[i] = (int) packed[i];
+            }
+            for (int start = 0; start < keys.length; ) {
+                int end = start + 1;
+                while (end < keys.length && packed[end] >>> 32 == packed[start] >>> 32) {
+                    end++;
+                }
+                if (end - start > 1) {
+                    Integer[] run = new Integer[end - start];
+                    for (int i = start; i < end; i++) {
+                        run[i - start] = order[i];
+                    }
+                    Arrays.sort(run, (first, second) -> keys[first].compareTo(keys[second]));
+                    for (int i = start; i < end; i++) {
+                        order[i] = run[i - start];
+                    }
+                }
+                start = end;
+            }
+            return order;
+        }
+
+        /**
+         * Packs the first PREFIX_LENGTH characters of a key into 5-bit codes which sort like the characters:
+         * 0 after the end of the key, then one code below 'A', one per letter and one above 'Z'.
+         * The codes below 'A' and above 'Z' stand for many characters, so the characters after them are not packed:
+         * two keys sharing such a code get the same packed prefix and are compared as strings, which keeps
+         * the order of String.compareTo, the order the searches use.
+         *
+         * @param key the upper-case value
+         * @return the packed prefix, positive
+         */
+        private static int prefixCode(String key) {
+            int code = 0;
+            boolean packing = true;
+            for (int i = 0; i < PREFIX_LENGTH; i++) {
+                int symbol = 0;
+                if (packing && i < key.length()) {
+                    char character = key.charAt(i);
+                    symbol = character < 'A' ? 1 : character <= 'Z' ? character - 'A' + 2 : 28;
+                    packing = symbol != 1 && symbol != 28;
+                }
+                code = code << 5 | symbol;
+            }
+            return code;
+        }
+
+        /**
+         * Checks whether an id belongs to a removed word.
+         *
+         * @param id the id
+         * @return true if the word was removed, false otherwise
+         */
+        private boolean isRemoved(int id) {
+            return id >>> 6 < removed.length && (removed[id >>> 6] & 1L << id) != 0;
+        }
+
+        /**
+         * Finds a word with the specified value.
+         *
+         * @param key the upper-case value
+         * @return the id of the word, or -1 if no word has this value
+         */
+        int find(String key) {
+            return find(key, null);
+        }
+
+        /**
+         * Finds a word with the specified value, or a word instance.
+         * The slots holding ids of later snapshots, which share the table, are skipped.
+         *
+         * @param key the upper-case value
+         * @param word the word instance to find, or null to find any word with the value
+         * @return the id of the word, or -1 if it is not in the bucket
+         */
+        private int find(String key, DictionaryWord word) {
+            int mask = table.length - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                int id = entry - 1;
+                if (id < entryCount && !isRemoved(id) && (word == null ? keys[id].equals(key) : entries[id] == word)) {
+                    return id;
+                }
+            }
+        }
+
+        /**
+         * Returns a bucket with a word added with a new id.
+         *
+         * @param word the added word
+         * @return the new bucket
+         */
+        Bucket withAdded(DictionaryWord word) {
+            DictionaryWord[] nextEntries = entries;
+            String[] nextKeys = keys;
+            if (entryCount == entries.length) {
+                nextEntries = Arrays.copyOf(entries, entryCount + (entryCount >> 1) + 16);
+                nextKeys = Arrays.copyOf(keys, nextEntries.length);
+            }
+            int id = entryCount;
+            String key = word.getRawValue().toUpperCase();
+            nextEntries[id] = word;
+            nextKeys[id] = key;
+            int[] nextTable = table;
+            if ((id + 1) * 2L > table.length) {
+                nextTable = new int[table.length * 2];
+                for (int other = 0; other <= id; other++) {
+                    if (!isRemoved(other)) {
+                        insertInTable(nextTable, nextKeys, other);
+                    }
+                }
+            } else {
+                insertInTable(nextTable, nextKeys, id);
+            }
+            int[][] nextPostings = postings.clone();
+            int[] nextPostingSizes = postingSizes.clone();
+            addPostings(nextKeys, id, nextPostings, nextPostingSizes);
+
+            int position = lowerBound(nextKeys, recent, key);
+            while (position < recent.length && nextKeys[recent[position]].equals(key)) {
+                position++;
+            }
+            int[] nextRecent = new int[recent.length + 1];
+            System.arraycopy(recent, 0, nextRecent, 0, position);
+            nextRecent[position] = id;
+            System.arraycopy(recent, position, nextRecent, position + 1, recent.length - position);
+            int[] nextSorted = sorted;
+            if (nextRecent.length > Math.max(MIN_RECENT_COUNT, (int) Math.sqrt(sorted.length))) {
+                nextSorted = merge(nextKeys, sorted, nextRecent);
+                nextRecent = NO_IDS;
+            }
+            return new Bucket(nextEntries, nextKeys, id + 1, removed, removedCount,
+                    nextSorted, nextRecent, nextTable, nextPostings, nextPostingSizes);
+        }
+
+        /**
+         * Returns a bucket without a word instance.
+         *
+         * @param word the removed word
+         * @return the new bucket, or this bucket if the word is not in it
+         */
+        Bucket withRemoved(DictionaryWord word) {
+            String key = word.getRawValue().toUpperCase();
+            int id = find(key, word);
+            if (id < 0) {
+                return this;
+            }
+            int[] nextSorted = sorted;
+            int[] nextRecent = recent;
+            int position = positionOf(recent, key, id);
+            if (position >= 0) {
+                nextRecent = without(recent, position);
+            } else {
+                nextSorted = without(sorted, positionOf(sorted, key, id));
+            }
+            int nextRemovedCount = removedCount + 1;
+            if (nextRemovedCount > 1024 && nextRemovedCount * 2 > entryCount) {
+                DictionaryWord[] words = new DictionaryWord[nextSorted.length + nextRecent.length];
+                for (int i = 0; i < nextSorted.length; i++) {
+                    words[i] = entries[nextSorted[i]];
+                }
+                for (int i = 0; i < nextRecent.length; i++) {
+                    words[nextSorted.length + i] = entries[nextRecent[i]];
+                }
+                return build(words);
+            }
+            long[] nextRemoved = Arrays.copyOf(removed, Math.max(removed.length, (entryCount + 63) >>> 6));
+            nextRemoved[id >>> 6] |= 1L << id;
+            return new Bucket(entries, keys, entryCount, nextRemoved, nextRemovedCount,
+                    nextSorted, nextRecent, table, postings, postingSizes);
+        }
+
+        /**
+         * Merges two arrays of ids sorted by value, the ids of the first array coming first among equal values.
+         *
+         * @param keys the upper-case values by id
+         * @param first the first sorted ids
+         * @param second the second sorted ids
+         * @return the merged ids
+         */
+        private static int[] merge(String[] keys, int[] first, int[] second) {
+            int[] merged = new int[first.length + second.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < merged.length; k++) {
+                if (j == second.length || i < first.length && keys[first[i]].compareTo(keys[second[j]]) <= 0) {
+                    merged[k] = first[i++];
+                } else {
+                    merged[k] = second[j++];
+                }
+            }
+            return merged;
+        }
+
+        /**
+         * Copies an array of ids without one position.
+         *
+         * @param ids the ids
+         * @param position the position to leave out
+         * @return the copy
+         */
+        private static int[] without(int[] ids, int position) {
+            int[] remaining = new int[ids.length - 1];
+            System.arraycopy(ids, 0, remaining, 0, position);
+            System.arraycopy(ids, position + 1, remaining, position, ids.length - position - 1);
+            return remaining;
+        }
+
+        /**
+         * Finds the position of an id in an array of ids sorted by value.
+         *
+         * @param ids the sorted ids
+         * @param key the upper-case value of the id
+         * @param id the id
+         * @return the position of the id, or -1 if it is not in the array
+         */
+        private int positionOf(int[] ids, String key, int id) {
+            for (int position = lowerBound(keys, ids, key); position < ids.length && keys[ids[position]].equals(key); position++) {
+                if (ids[position] == id) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Searches the words containing the query.
+         *
+         * @param key the upper-case query
+         * @param maxOtherMatches the maximum number of words containing the query but not starting with it
+         * @return the words starting with the query, followed by the other words containing it
+         */
+        List<DictionaryWord> search(String key, int maxOtherMatches) {
+            int from = lowerBound(keys, sorted, key);
+            int to = upperBoundOfPrefix(sorted, key, from);
+            int recentFrom = lowerBound(keys, recent, key);
+            int[] recentMatches = Arrays.copyOfRange(recent, recentFrom, upperBoundOfPrefix(recent, key, recentFrom));
+            // where each recent match goes among the sorted matches, after the words of the same value
+            int[] recentPositions = new int[recentMatches.length];
+            for (int i = 0; i < recentMatches.length; i++) {
+                String recentKey = keys[recentMatches[i]];
+                int low = from;
+                int high = to;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (keys[sorted[middle]].compareTo(recentKey) <= 0) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                recentPositions[i] = low - from + i;
+            }
+            List<DictionaryWord> otherMatches = new ArrayList<>();
+            if (!key.isEmpty() && maxOtherMatches > 0) {
+                if (key.length() >= 2) {
+                    searchBigramCandidates(key, maxOtherMatches, otherMatches);
+                } else {
+                    searchLetter(key.charAt(0), maxOtherMatches, otherMatches);
+                }
+            }
+            return new SearchResult(entries, sorted, from, to, recentMatches, recentPositions, otherMatches);
+        }
+
+        /**
+         * Collects the words containing the query but not starting with it,
+         * among the words containing its rarest pair of letters, until maxOtherMatches words are found.
+         *
+         * @param key the upper-case query, of at least 2 characters
+         * @param maxOtherMatches the maximum number of collected words
+         * @param otherMatches the list the words are added to, in alphabetical order
+         */
+        private void searchBigramCandidates(String key, int maxOtherMatches, List<DictionaryWord> otherMatches) {
+            int rarest = bigram(key, 0);
+            for (int position = 1; position + 2 <= key.length(); position++) {
+                int bigram = bigram(key, position);
+                if (postingSizes[bigram] < postingSizes[rarest]) {
+                    rarest = bigram;
+                }
+            }
+            int[] candidates = postings[rarest];
+            int[] matches = new int[Math.min(maxOtherMatches, postingSizes[rarest])];
+            int matchCount = 0;
+            for (int i = 0; i < postingSizes[rarest] && matchCount < matches.length; i++) {
+                String candidate = keys[candidates[i]];
+                if (!isRemoved(candidates[i]) && candidate.indexOf(key, 1) >= 0 && !candidate.startsWith(key)) {
+                    matches[matchCount++] = candidates[i];
+                }
+            }
+            addInOrder(matches, matchCount, otherMatches);
+        }
+
+        /**
+         * Collects the words containing a character but not starting with it, until maxOtherMatches words are found.
+         * The candidates are the words of the postings of the pairs of letters ending with the character.
+         *
+         * @param character the upper-case character
+         * @param maxOtherMatches the maximum number of collected words
+         * @param otherMatches the list the words are added to, in alphabetical order
+         */
+        private void searchLetter(char character, int maxOtherMatches, List<DictionaryWord> otherMatches) {
+            int[] matches = new int[maxOtherMatches];
+            int matchCount = 0;
+            // the largest postings first, they hold the most words whose first pair ends with the character
+            Integer[] bigrams = new Integer[SYMBOLS];
+            for (int first = 0; first < SYMBOLS; first++) {
+                bigrams[first] = first * SYMBOLS + symbol(character);
+            }
+            Arrays.sort(bigrams, (first, second) -> Integer.compare(postingSizes[second], postingSizes[first]));
+            for (int bigram : bigrams) {
+                if (matchCount == maxOtherMatches) {
+                    break;
+                }
+                int first = bigram / SYMBOLS;
+                int[] candidates = postings[bigram];
+                for (int i = 0; i < postingSizes[bigram] && matchCount < maxOtherMatches; i++) {
+                    String candidate = keys[candidates[i]];
+                    if (isRemoved(candidates[i]) || candidate.charAt(0) == character) {
+                        continue;
+                    }
+                    // a word is in the postings of each pair ending with the character, only its first pair counts
+                    int position = candidate.indexOf(character, 1);
+                    if (position > 0 && symbol(candidate.charAt(position - 1)) == first) {
+                        matches[matchCount++] = candidates[i];
+                    }
+                }
+            }
+            addInOrder(matches, matchCount, otherMatches);
+        }
+
+        /**
+         * Adds words to a list in alphabetical order.
+         *
+         * @param ids the ids of the words
+         * @param count the number of ids
+         * @param words the list the words are added to
+         */
+        private void addInOrder(int[] ids, int count, List<DictionaryWord> words) {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = ids[i];
+            }
+            Arrays.sort(order, (first, second) -> keys[first].compareTo(keys[second]));
+            for (int id : order) {
+                words.add(entries[id]);
+            }
+        }
+
+        /**
+         * Finds the first position in sorted ids whose value is not lower than a key.
+         *
+         * @param keys the upper-case values by id
+         * @param ids the ids sorted by value
+         * @param key the upper-case value
+         * @return the position
+         */
+        private static int lowerBound(String[] keys, int[] ids, String key) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[ids[middle]].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Finds the first position from a lower bound of a prefix in sorted ids whose value does not start with the prefix.
+         *
+         * @param ids the ids sorted by value
+         * @param prefix the upper-case prefix
+         * @param from the lower bound of the prefix in the ids
+         * @return the end of the range of the values starting with the prefix
+         */
+        private int upperBoundOfPrefix(int[] ids, String prefix, int from) {
+            int low = from;
+            int high = ids.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[ids[middle]].startsWith(prefix)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Inserts an id in a hash table, which must have room for it.
+         *
+         * @param table the hash table
+         * @param keys the upper-case values by id
+         * @param id the id of the word
+         */
+        private static void insertInTable(int[] table, String[] keys, int id) {
+            int mask = table.length - 1;
+            int slot = hash(keys[id]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+
+        /**
+         * Builds the postings of every pair of letters, counting their ids first so each posting is allocated once.
+         *
+         * @param keys the upper-case values by id
+         * @param count the number of ids
+         * @param postings the postings to fill, empty
+         * @param postingSizes the sizes of the postings to fill, all 0
+         */
+        private static void buildPostings(String[] keys, int count, int[][] postings, int[] postingSizes) {
+            int[] counts = new int[BIGRAMS];
+            int[] lastIds = new int[BIGRAMS];
+            Arrays.fill(lastIds, -1);
+            for (int id = 0; id < count; id++) {
+                String key = keys[id];
+                for (int position = 0; position + 2 <= key.length(); position++) {
+                    int bigram = bigram(key, position);
+                    if (lastIds[bigram] != id) {
+                        lastIds[bigram] = id;
+                        counts[bigram]++;
+                    }
+                }
+            }
+            for (int bigram = 0; bigram < BIGRAMS; bigram++) {
+                if (counts[bigram] > 0) {
+                    postings[bigram] = new int[counts[bigram] + (counts[bigram] >> 3) + 16];
+                }
+            }
+            for (int id = 0; id < count; id++) {
+                addPostings(keys, id, postings, postingSizes);
+            }
+        }
+
+        /**
+         * Adds an id to the postings of every pair of letters of its word, once per pair.
+         * A posting is only written past its size, or grown into a new array.
+         *
+         * @param keys the upper-case values by id
+         * @param id the id of the word
+         * @param postings the postings, owned by the bucket being made
+         * @param postingSizes the sizes of the postings, owned by the bucket being made
+         */
+        private static void addPostings(String[] keys, int id, int[][] postings, int[] postingSizes) {
+            String key = keys[id];
+            for (int position = 0; position + 2 <= key.length(); position++) {
+                int bigram = bigram(key, position);
+                int size = postingSizes[bigram];
+                int[] posting = postings[bigram];
+                if (size > 0 && posting[size - 1] == id) {
+                    continue;
+                }
+                if (posting == null) {
+                    posting = postings[bigram] = new int[16];
+                } else if (size == posting.length) {
+                    posting = postings[bigram] = Arrays.copyOf(posting, size + (size >> 1));
+                }
+                posting[size] = id;
+                postingSizes[bigram] = size + 1;
+            }
+        }
+    }
+
+    /**
+     * The words found by a search: a range of the sorted ids merged with the recent ids starting with the query,
+     * followed by other matches. The arrays it reads are never changed within the range it reads.
+     */
+    private static class SearchResult extends AbstractList<DictionaryWord> implements RandomAccess {
+        private final DictionaryWord[] entries;
+        private final int[] sorted;
+        private final int from;
+        private final int[] recentMatches;
+        private final int[] recentPositions;
+        private final int prefixMatchCount;
+        private final List<DictionaryWord> otherMatches;
+
+        SearchResult(DictionaryWord[] entries, int[] sorted, int from, int to, int[] recentMatches, int[] recentPositions,
+                     List<DictionaryWord> otherMatches) {
+            this.entries = entries;
+            this.sorted = sorted;
+            this.from = from;
+            this.recentMatches = recentMatches;
+            this.recentPositions = recentPositions;
+            this.prefixMatchCount = to - from + recentMatches.length;
+            this.otherMatches = otherMatches;
+        }
+
+        @Override
+        public DictionaryWord get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (index < prefixMatchCount) {
+                int recentIndex = Arrays.binarySearch(recentPositions, index);
+                if (recentIndex >= 0) {
+                    return entries[recentMatches[recentIndex]];
+                }
+                // the recent matches placed before the index shift the sorted ones
+                return entries[sorted[from + index + recentIndex + 1]];
+            }
+            return otherMatches.get(index - prefixMatchCount);
+        }
+
+        @Override
+        public int size() {
+            return prefixMatchCount + otherMatches.size();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import javax.swing.*;
+import java.util.List;
+
+/**
+ * The WordListModel class is the list model of the words of one difficulty level, read directly from the dictionary.
+ * The words are not copied: the model holds the immutable snapshot of the words the lists were last told of,
+ * a list only reads the rows it displays, and adding or removing a word only notifies the list of the changed row.
+ * With a filter, the model shows the words found by the search index of the dictionary instead.
+ * <p>
+ * The model listens to the dictionary: an edit made by any thread moves the model to the new snapshot
+ * on the event dispatch thread, along with the event telling the lists, so the size the lists know
+ * is always the size of the snapshot they read. Call close once the model is no longer used.
+ */
+public class WordListModel extends AbstractListModel<DictionaryWord> implements Dictionary.ChangeListener {
+    /**
+     * The maximum number of words shown which contain the filter without starting with it.
+     */
+    public static final int MAX_OTHER_MATCHES = 1000;
+
+    private final Dictionary dictionary;
+    private Difficulty difficulty;
+    private String filter;
+    private List<DictionaryWord> words;
+    private List<DictionaryWord> filteredWords;
+
+    /**
+     * Constructs a WordListModel showing the words of the specified difficulty.
+     *
+     * @param dictionary the dictionary holding the words
+     * @param difficulty the difficulty level of the shown words
+     */
+    public WordListModel(Dictionary dictionary, Difficulty difficulty) {
+        this.dictionary = dictionary;
+        this.difficulty = difficulty;
+        this.words = dictionary.getWordsByDifficulty(difficulty);
+        dictionary.addChangeListener(this);
+    }
+
+    /**
+     * Stops following the edits of the dictionary.
+     */
+    public void close() {
+        dictionary.removeChangeListener(this);
+    }
+
+    @Override
+    public int getSize() {
+        return getWords().size();
+    }
+
+    @Override
+    public DictionaryWord getElementAt(int index) {
+        return getWords().get(index);
+    }
+
+    /**
+     * Gets the shown words.
+     *
+     * @return the words found with the filter, or the snapshot of the words of the difficulty level without filter
+     */
+    private List<DictionaryWord> getWords() {
+        return filteredWords != null ? filteredWords : words;
+    }
+
+    /**
+     * Gets the difficulty level of the shown words.
+     *
+     * @return the difficulty level
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Shows the words of another difficulty level.
+     *
+     * @param difficulty the difficulty level of the words to show
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        int oldSize = getSize();
+        this.difficulty = difficulty;
+        words = dictionary.getWordsByDifficulty(difficulty);
+        search();
+        fireWordsReplaced(oldSize);
+    }
+
+    /**
+     * Only shows the words containing a text, the words starting with it first.
+     *
+     * @param filter the text the shown words contain, ignoring case, or an empty text to show every word
+     */
+    public void setFilter(String filter) {
+        int oldSize = getSize();
+        this.filter = filter;
+        words = dictionary.getWordsByDifficulty(difficulty);
+        search();
+        fireWordsReplaced(oldSize);
+    }
+
+    /**
+     * Searches the words matching the filter again.
+     */
+    private void search() {
+        filteredWords = filter == null || filter.isEmpty()
+                ? null
+                : dictionary.getIndex().search(difficulty, filter, MAX_OTHER_MATCHES);
+    }
+
+    /**
+     * Notifies the lists that the shown words were replaced.
+     *
+     * @param oldSize the number of words shown before
+     */
+    private void fireWordsReplaced(int oldSize) {
+        int newSize = getSize();
+        if (oldSize > newSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        } else if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        }
+        if (Math.min(oldSize, newSize) > 0) {
+            fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+        }
+    }
+
+    /**
+     * Adds a word to the dictionary, at the end of the list of its difficulty, and logs the addition.
+     * The lists are told of the new word by wordsChanged.
+     *
+     * @param word the word to add
+     * @return true if the word was added, false if the dictionary already holds a word with its value
+     */
+    public boolean addWord(DictionaryWord word) {
+        return dictionary.addLoggedWord(word);
+    }
+
+    /**
+     * Removes a word from the dictionary, and logs the removal.
+     * The lists are told of the removed word by wordsChanged.
+     *
+     * @param word the word to remove
+     */
+    public void removeWord(DictionaryWord word) {
+        dictionary.removeLoggedWord(word);
+    }
+
+    /**
+     * Shows an edit of the dictionary, on the event dispatch thread: at once when the edit is made on it,
+     * later otherwise.
+     *
+     * @param changed the difficulty level of the changed words
+     * @param previousWords the words of the difficulty before the edit
+     * @param newWords the words of the difficulty after the edit
+     * @param index the position of the first changed word
+     * @param removedCount the number of words removed from the position
+     * @param addedCount the number of words added at the position
+     */
+    @Override
+    public void wordsChanged(Difficulty changed, List<DictionaryWord> previousWords, List<DictionaryWord> newWords,
+                             int index, int removedCount, int addedCount) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            showChange(changed, previousWords, newWords, index, removedCount, addedCount);
+        } else {
+            SwingUtilities.invokeLater(() -> showChange(changed, previousWords, newWords, index, removedCount, addedCount));
+        }
+    }
+
+    /**
+     * Moves the model to the latest words of its difficulty and tells the lists. Only the changed rows
+     * are notified when the edit follows the shown snapshot and no later edit was made; otherwise,
+     * or with a filter, the shown words are replaced.
+     *
+     * @param changed the difficulty level of the changed words
+     * @param previousWords the words of the difficulty before the edit
+     * @param newWords the words of the difficulty after the edit
+     * @param index the position of the first changed word
+     * @param removedCount the number of words removed from the position
+     * @param addedCount the number of words added at the position
+     */
+    private void showChange(Difficulty changed, List<DictionaryWord> previousWords, List<DictionaryWord> newWords,
+                            int index, int removedCount, int addedCount) {
+        if (changed != difficulty) {
+            return;
+        }
+        List<DictionaryWord> latest = dictionary.getWordsByDifficulty(difficulty);
+        if (latest == words) {
+            // a later edit was already shown
+            return;
+        }
+        if (filteredWords != null || previousWords != words || newWords != latest) {
+            int oldSize = getSize();
+            words = latest;
+            search();
+            fireWordsReplaced(oldSize);
+            return;
+        }
+        words = latest;
+        if (removedCount > 0) {
+            fireIntervalRemoved(this, index, index + removedCount - 1);
+        }
+        if (addedCount > 0) {
+            fireIntervalAdded(this, index, index + addedCount - 1);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The WordPicker class picks the words of the games of one player, or of one simulation.
+ * Without a seed, the words are drawn from the random generator of the calling thread, so pickers of many sessions
+ * never contend on a shared generator; with a seed, the same seed picks the same words, to reproduce a run.
+ * <p>
+ * In no-repeat mode, the picker goes through the words of each difficulty in a shuffled order, so a word is only
+ * picked again once every other word of its difficulty has been. The order is not stored: the position in the
+ * order is mapped to a word by a keyed permutation, so the picker only keeps a few numbers per difficulty
+ * whatever the size of the dictionary, and the word lists are never copied. The permutation mixes the bits
+ * of the position with rounds of an odd multiplication, an addition and a shift-xor, each a bijection
+ * on the smallest power of two holding the words; results past the last word are mapped again until they fall
+ * on a word (cycle walking), which takes less than two rounds on average.
+ * When the number of words of a difficulty changes, a new order is started.
+ */
+public class WordPicker {
+    private static final int ROUNDS = 3;
+
+    private final Dictionary dictionary;
+    private final SplittableRandom seededRandom;
+    private final Cycle[] cycles;
+
+    /**
+     * Constructs a WordPicker drawing from the random generator of the calling thread.
+     *
+     * @param dictionary the dictionary the words are picked from
+     * @param noRepeat true to only repeat a word once every word of its difficulty has been picked
+     */
+    public WordPicker(Dictionary dictionary, boolean noRepeat) {
+        this(dictionary, noRepeat, null);
+    }
+
+    /**
+     * Constructs a WordPicker picking the same words for the same seed.
+     * A seeded picker must not be used by several threads at once.
+     *
+     * @param dictionary the dictionary the words are picked from
+     * @param noRepeat true to only repeat a word once every word of its difficulty has been picked
+     * @param seed the seed of the random generator
+     */
+    public WordPicker(Dictionary dictionary, boolean noRepeat, long seed) {
+        this(dictionary, noRepeat, new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructs a WordPicker.
+     *
+     * @param dictionary the dictionary the words are picked from
+     * @param noRepeat true to only repeat a word once every word of its difficulty has been picked
+     * @param seededRandom the seeded random generator, or null to use the generator of the calling thread
+     */
+    private WordPicker(Dictionary dictionary, boolean noRepeat, SplittableRandom seededRandom) {
+        this.dictionary = dictionary;
+        this.seededRandom = seededRandom;
+        if (noRepeat) {
+            cycles = new Cycle[Difficulty.values().length];
+            for (int i = 0; i < cycles.length; i++) {
+                cycles[i] = new Cycle();
+            }
+        } else {
+            cycles = null;
+        }
+    }
+
+    /**
+     * Picks a word of the specified difficulty.
+     *
+     * @param difficulty the difficulty level of the word
+     * @return the picked word
+     */
+    public DictionaryWord pick(Difficulty difficulty) {
+        if (cycles == null) {
+            return dictionary.pickRandomWord(difficulty, random());
+        }
+        List<DictionaryWord> words = dictionary.getWordsByDifficulty(difficulty);
+        if (words.isEmpty()) {
+            throw new IllegalStateException("No word of difficulty " + difficulty);
+        }
+        Cycle cycle = cycles[difficulty.ordinal()];
+        synchronized (cycle) {
+            DictionaryWord word = words.get(cycle.next(words.size(), random()));
+            if (word == cycle.lastWord && words.size() > 1) {
+                // the new order started with the last word of the previous one
+                word = words.get(cycle.next(words.size(), random()));
+            }
+            cycle.lastWord = word;
+            return word;
+        }
+    }
+
+    /**
+     * Gets the random generator of the picker.
+     *
+     * @return the seeded generator, or the generator of the calling thread
+     */
+    private RandomGenerator random() {
+        return seededRandom != null ? seededRandom : ThreadLocalRandom.current();
+    }
+
+    /**
+     * The Cycle class is the position of a picker in the shuffled order of the words of one difficulty.
+     */
+    private static final class Cycle {
+        private int size = -1;
+        private int mask;
+        private int shift;
+        private final int[] multipliers = new int[ROUNDS];
+        private final int[] increments = new int[ROUNDS];
+        private int position;
+        private DictionaryWord lastWord;
+
+        /**
+         * Moves to the next position of the order, starting a new order when every word has been picked
+         * or when the number of words changed.
+         *
+         * @param wordCount the number of words
+         * @param random the random generator drawing the keys of a new order
+         * @return the index of the word at the position
+         */
+        int next(int wordCount, RandomGenerator random) {
+            if (wordCount != size || position >= size) {
+                start(wordCount, random);
+            }
+            int index = position++;
+            do {
+                index = permute(index);
+            } while (index >= size);
+            return index;
+        }
+
+        /**
+         * Starts a new order, drawing new keys.
+         *
+         * @param wordCount the number of words
+         * @param random the random generator
+         */
+        private void start(int wordCount, RandomGenerator random) {
+            size = wordCount;
+            position = 0;
+            int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(wordCount - 1));
+            mask = (1 << bits) - 1;
+            shift = bits / 2 + 1;
+            for (int round = 0; round < ROUNDS; round++) {
+                multipliers[round] = random.nextInt() | 1;
+                increments[round] = random.nextInt();
+            }
+        }
+
+        /**
+         * Maps a number to another one of the same power-of-two range, each number to a different one.
+         *
+         * @param value the number, between 0 and mask
+         * @return the mapped number, between 0 and mask
+         */
+        private int permute(int value) {
+            int result = value;
+            for (int round = 0; round < ROUNDS; round++) {
+                result = (result * multipliers[round] + increments[round]) & mask;
+                result ^= result >>> shift;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,880 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The WordSampler class draws the words of a dictionary, favouring the words whose estimated win rate
+ * is close to a desired one, whatever the difficulty level they are in.
+ * <p>
+ * Drawing a word takes constant time whatever the size of the dictionary: the words of each difficulty level
+ * are cut into blocks of at most BLOCK_SIZE words, each block has an alias table over its words, and a top alias
+ * table picks the block from the total weight of each block. When a round is recorded, only the block of its word
+ * and the top table are built again, on the next draw. The desired win rates are rounded to LEVELS steps, each step
+ * with its own tables built on its first draw; an entry takes 4 bytes per word and step.
+ * <p>
+ * Each word has a handle, kept while the word is in the dictionary, and the words are found by value
+ * in an open-addressing hash table of their handles, to follow the statistics of the words; the values are hashed
+ * from their UTF-8 bytes, so the words of a binary dictionary are not decoded.
+ * The sampler listens to the edits of the dictionary: a word added at the end of a difficulty joins its last block,
+ * a removed word leaves its block, and only that block is built again; removing a word still moves the positions
+ * of the later words of its difficulty, in O(n) with a pass over their handles. Any other edit builds
+ * the tables of its difficulty level again.
+ */
+public class WordSampler implements Dictionary.ChangeListener {
+    /**
+     * The number of desired win rates the sampler keeps tables for, from 0 to 1.
+     */
+    public static final int LEVELS = 11;
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    /**
+     * The win rate difference at which the weight of a word falls to 1/e of the weight of a word at the desired rate.
+     */
+    private static final double WIDTH = 0.15;
+
+    /**
+     * The weight added to every word, so every word can still be drawn when no word is close to the desired rate.
+     */
+    private static final double FLOOR = 1e-3;
+
+    /**
+     * The number of rounds or edits noted between two draws from which every table is built again instead.
+     */
+    private static final int MAX_PENDING = 1 << 16;
+
+    private final Dictionary dictionary;
+    private final WordStatistics statistics;
+    private final Segment[] segments;
+    private final Level[] levels;
+    private final List<Edit> pendingEdits;
+    private boolean built;
+    private boolean editsDropped;
+    private int wordCount;
+    /**
+     * The position of the word of each handle, as its position in its difficulty shifted left by 2, or'ed
+     * with the ordinal of the difficulty. A word keeps its handle while it is in the dictionary, so only
+     * the positions change when the words before it are removed.
+     */
+    private int[] handlePositions = new int[16];
+    private int[] handleHashes = new int[16];
+    private int handleCount;
+    private int[] freeHandles = new int[16];
+    private int freeCount;
+    /**
+     * The handles of the words, -1 for an empty slot.
+     */
+    private int[] table;
+    private int[] handlesById;
+    private int resolvedCount;
+    private int[] pendingIds;
+    private int pendingCount;
+    private boolean allChanged;
+
+    /**
+     * Constructs a WordSampler of the words of a dictionary, following its edits. The tables are built on the first draw.
+     *
+     * @param dictionary the dictionary the words are drawn from
+     * @param statistics the statistics of the words
+     */
+    public WordSampler(Dictionary dictionary, WordStatistics statistics) {
+        this.dictionary = dictionary;
+        this.statistics = statistics;
+        this.segments = new Segment[DIFFICULTIES.length];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(DIFFICULTIES[i]);
+        }
+        this.levels = new Level[LEVELS];
+        this.pendingEdits = new ArrayList<>();
+        this.pendingIds = new int[16];
+        dictionary.addChangeListener(this);
+    }
+
+    /**
+     * Gets the dictionary the words are drawn from.
+     *
+     * @return the dictionary
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Draws a word, with a weight falling with the distance between its estimated win rate and the desired one.
+     *
+     * @param desiredWinRate the desired win rate, between 0 and 1
+     * @param random the random generator
+     * @return the drawn word
+     */
+    public synchronized DictionaryWord sample(double desiredWinRate, RandomGenerator random) {
+        if (!built || editsDropped) {
+            build();
+        } else {
+            applyPendingEdits();
+        }
+        if (wordCount == 0) {
+            throw new IllegalStateException("No word in the dictionary");
+        }
+        applyPendingChanges();
+        int levelNumber = (int) Math.round(Math.max(0, Math.min(1, desiredWinRate)) * (LEVELS - 1));
+        Level level = levels[levelNumber];
+        if (level == null) {
+            level = new Level((double) levelNumber / (LEVELS - 1));
+            levels[levelNumber] = level;
+        }
+        level.update();
+
+        while (true) {
+            // one random number gives the block and both coins, another the word in the block
+            long bits = random.nextLong();
+            int block = (int) (((bits >>> 32) * level.blockProbabilities.length) >>> 32);
+            if ((int) (bits & 0xFFFF) >= level.blockProbabilities[block]) {
+                block = level.blockAliases[block];
+            }
+            int ordinal = level.blockSegments[block];
+            Segment segment = segments[ordinal];
+            int segmentBlock = level.blockNumbers[block];
+            int length = segment.blockLengths[segmentBlock];
+            if (length == 0) {
+                // a block emptied by removals keeps a weight of 0, it is only reached through rounding
+                continue;
+            }
+            int start = segment.blockStarts[segmentBlock];
+            int position = start + (int) (((random.nextLong() >>> 32) * length) >>> 32);
+            int entry = level.entries[ordinal][position];
+            if ((int) ((bits >>> 16) & 0xFFFF) >= entry >>> 16) {
+                position = start + (entry & 0xFFFF);
+            }
+            return segment.words.get(position);
+        }
+    }
+
+    /**
+     * Notes that a round was recorded with a word, so its weights are computed again on the next draw.
+     *
+     * @param id the statistics id of the word
+     */
+    synchronized void statisticsChanged(int id) {
+        if (allChanged) {
+            return;
+        }
+        if (pendingCount == MAX_PENDING) {
+            allChanged = true;
+            pendingCount = 0;
+            return;
+        }
+        if (pendingCount == pendingIds.length) {
+            pendingIds = Arrays.copyOf(pendingIds, pendingCount * 2);
+        }
+        pendingIds[pendingCount++] = id;
+    }
+
+    /**
+     * Notes an edit of the dictionary, applied to the tables on the next draw.
+     *
+     * @param difficulty the difficulty level of the changed words
+     * @param previousWords the words of the difficulty before the edit
+     * @param words the words of the difficulty after the edit
+     * @param index the position of the first changed word
+     * @param removedCount the number of words removed from the position
+     * @param addedCount the number of words added at the position
+     */
+    @Override
+    public synchronized void wordsChanged(Difficulty difficulty, List<DictionaryWord> previousWords, List<DictionaryWord> words,
+                                          int index, int removedCount, int addedCount) {
+        if (!built || editsDropped) {
+            return;
+        }
+        if (pendingEdits.size() == MAX_PENDING) {
+            editsDropped = true;
+            pendingEdits.clear();
+            return;
+        }
+        pendingEdits.add(new Edit(difficulty.ordinal(), previousWords, words, index, removedCount, addedCount));
+    }
+
+    /**
+     * Indexes every word of the dictionary and finds the words with statistics.
+     * The tables of the desired win rates are built again on their next draw.
+     */
+    private void build() {
+        pendingEdits.clear();
+        editsDropped = false;
+        wordCount = 0;
+        for (Segment segment : segments) {
+            segment.reset(dictionary.getWordsByDifficulty(segment.difficulty));
+            wordCount += segment.count;
+        }
+        Arrays.fill(levels, null);
+        rebuildTable();
+        handlesById = new int[16];
+        resolvedCount = 0;
+        resolveNewIds();
+        pendingCount = 0;
+        allChanged = false;
+        built = true;
+    }
+
+    /**
+     * Applies the edits of the dictionary noted since the last draw.
+     * An edit made before the words were last read is skipped, and an edit that does not follow
+     * the words the tables hold builds the tables of its difficulty again.
+     */
+    private void applyPendingEdits() {
+        for (Edit edit : pendingEdits) {
+            Segment segment = segments[edit.ordinal];
+            if (edit.words == segment.words) {
+                continue;
+            }
+            if (edit.previousWords != segment.words) {
+                resetSegment(edit.ordinal, edit.words);
+            } else if (edit.removedCount == 1 && edit.addedCount == 0) {
+                removeWord(edit.ordinal, edit.index, edit.words);
+            } else if (edit.removedCount == 0 && edit.index == segment.count) {
+                appendWords(edit.ordinal, edit.words, edit.addedCount);
+            } else {
+                resetSegment(edit.ordinal, edit.words);
+            }
+        }
+        pendingEdits.clear();
+    }
+
+    /**
+     * Builds the tables of a difficulty level again from its words, the other levels are kept.
+     *
+     * @param ordinal the ordinal of the difficulty level
+     * @param words the words of the difficulty
+     */
+    private void resetSegment(int ordinal, List<DictionaryWord> words) {
+        Segment segment = segments[ordinal];
+        for (int id = 0; id < resolvedCount; id++) {
+            int handle = handlesById[id];
+            if (handle >= 0 && (handlePositions[handle] & 3) == ordinal) {
+                handlesById[id] = -1;
+            }
+        }
+        wordCount += words.size() - segment.count;
+        segment.reset(words);
+        for (Level level : levels) {
+            if (level != null) {
+                level.resetSegment(ordinal);
+            }
+        }
+        rebuildTable();
+        // only the words of this difficulty changed, the others keep their handles
+        for (int id = 0; id < resolvedCount; id++) {
+            if (handlesById[id] < 0) {
+                int handle = find(statistics.getKey(id));
+                handlesById[id] = handle;
+                if (handle >= 0) {
+                    segment.statisticIds[handlePositions[handle] >>> 2] = id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the words appended at the end of a difficulty level to its last block, or to new blocks once it is full.
+     *
+     * @param ordinal the ordinal of the difficulty level
+     * @param words the words of the difficulty after the edit
+     * @param addedCount the number of appended words
+     */
+    private void appendWords(int ordinal, List<DictionaryWord> words, int addedCount) {
+        Segment segment = segments[ordinal];
+        segment.ensureCapacity(segment.count + addedCount);
+        segment.words = words;
+        int firstBlock = Math.max(segment.blockCount - 1, 0);
+        for (int i = 0; i < addedCount; i++) {
+            int index = segment.count;
+            DictionaryWord word = words.get(index);
+            int handle = newHandle(index << 2 | ordinal, hash(word.getRawValue().getBytes(StandardCharsets.UTF_8)));
+            segment.handles[index] = handle;
+            int id = statistics.getId(word.getRawValue());
+            boolean resolved = id >= 0 && id < resolvedCount;
+            segment.statisticIds[index] = resolved ? id : -1;
+            if (segment.blockCount == 0 || segment.blockLengths[segment.blockCount - 1] == BLOCK_SIZE) {
+                segment.addBlock(index);
+            }
+            segment.blockLengths[segment.blockCount - 1]++;
+            segment.count++;
+            wordCount++;
+            if (2L * wordCount > table.length) {
+                rebuildTable();
+            } else {
+                insert(handle);
+            }
+            if (resolved) {
+                handlesById[id] = handle;
+            }
+        }
+        for (Level level : levels) {
+            if (level != null) {
+                level.growSegment(ordinal);
+                for (int block = firstBlock; block < segment.blockCount; block++) {
+                    level.markDirty(ordinal, block);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a word from its block, moving the later words of its difficulty down by one position.
+     *
+     * @param ordinal the ordinal of the difficulty level
+     * @param index the position of the removed word in its difficulty
+     * @param words the words of the difficulty after the edit
+     */
+    private void removeWord(int ordinal, int index, List<DictionaryWord> words) {
+        Segment segment = segments[ordinal];
+        int handle = segment.handles[index];
+        delete(handle);
+        freeHandle(handle);
+        int id = segment.statisticIds[index];
+        if (id >= 0) {
+            handlesById[id] = -1;
+        }
+        int moved = segment.count - index - 1;
+        System.arraycopy(segment.handles, index + 1, segment.handles, index, moved);
+        System.arraycopy(segment.statisticIds, index + 1, segment.statisticIds, index, moved);
+        // the later words of the difficulty move down by one position
+        for (int i = index; i < index + moved; i++) {
+            handlePositions[segment.handles[i]] -= 4;
+        }
+        int block = segment.blockOf(index);
+        segment.blockLengths[block]--;
+        for (int i = block + 1; i < segment.blockCount; i++) {
+            segment.blockStarts[i]--;
+        }
+        segment.count--;
+        segment.words = words;
+        wordCount--;
+        for (Level level : levels) {
+            if (level != null) {
+                int[] entries = level.entries[ordinal];
+                System.arraycopy(entries, index + 1, entries, index, moved);
+                level.markDirty(ordinal, block);
+            }
+        }
+    }
+
+    /**
+     * Gives a handle to a word, reusing the handle of a removed word when there is one.
+     *
+     * @param encoded the position of the word, with its difficulty
+     * @param hash the hash of the word
+     * @return the handle
+     */
+    private int newHandle(int encoded, int hash) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (handleCount == handlePositions.length) {
+                handlePositions = Arrays.copyOf(handlePositions, handleCount * 2);
+                handleHashes = Arrays.copyOf(handleHashes, handleCount * 2);
+            }
+            handle = handleCount++;
+        }
+        handlePositions[handle] = encoded;
+        handleHashes[handle] = hash;
+        return handle;
+    }
+
+    /**
+     * Releases the handle of a removed word.
+     *
+     * @param handle the handle
+     */
+    private void freeHandle(int handle) {
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    /**
+     * Indexes the handles of every word again, in a table at most a quarter full.
+     */
+    private void rebuildTable() {
+        int capacity = 16;
+        while (capacity < 4L * wordCount) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        Arrays.fill(table, -1);
+        for (Segment segment : segments) {
+            for (int index = 0; index < segment.count; index++) {
+                insert(segment.handles[index]);
+            }
+        }
+    }
+
+    /**
+     * Adds a word to the hash table.
+     *
+     * @param handle the handle of the word
+     */
+    private void insert(int handle) {
+        int mask = table.length - 1;
+        int slot = handleHashes[handle] & mask;
+        while (table[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = handle;
+    }
+
+    /**
+     * Removes a word from the hash table, moving back the words after it that could no longer be found.
+     *
+     * @param handle the handle of the word
+     */
+    private void delete(int handle) {
+        int mask = table.length - 1;
+        int slot = handleHashes[handle] & mask;
+        while (table[slot] != handle) {
+            slot = (slot + 1) & mask;
+        }
+        for (int next = (slot + 1) & mask; table[next] >= 0; next = (next + 1) & mask) {
+            int home = handleHashes[table[next]] & mask;
+            // the word at next can move to the free slot if its home is not between the free slot and next
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                table[slot] = table[next];
+                slot = next;
+            }
+        }
+        table[slot] = -1;
+    }
+
+    /**
+     * Finds the handle of a word from its value.
+     *
+     * @param value the raw value of the word
+     * @return the handle of the word, or -1 if it is not in the dictionary
+     */
+    private int find(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int mask = table.length - 1;
+        int hash = hash(bytes);
+        for (int slot = hash & mask; table[slot] >= 0; slot = (slot + 1) & mask) {
+            int handle = table[slot];
+            int encoded = handlePositions[handle];
+            if (handleHashes[handle] == hash && segments[encoded & 3].valueEquals(encoded >>> 2, bytes, value)) {
+                return handle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the words of the statistics ids given since the last call, and marks their blocks to be built again.
+     */
+    private void resolveNewIds() {
+        int count = statistics.getWordCount();
+        if (count > handlesById.length) {
+            handlesById = Arrays.copyOf(handlesById, Math.max(count, handlesById.length * 2));
+        }
+        for (int id = resolvedCount; id < count; id++) {
+            int handle = find(statistics.getKey(id));
+            handlesById[id] = handle;
+            if (handle >= 0) {
+                int encoded = handlePositions[handle];
+                segments[encoded & 3].statisticIds[encoded >>> 2] = id;
+                markChanged(encoded);
+            }
+        }
+        resolvedCount = count;
+    }
+
+    /**
+     * Marks the blocks of the words whose statistics changed since the last draw.
+     */
+    private void applyPendingChanges() {
+        if (allChanged) {
+            resolveNewIds();
+            for (Level level : levels) {
+                if (level != null) {
+                    level.markAllDirty();
+                }
+            }
+            allChanged = false;
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            int id = pendingIds[i];
+            if (id >= resolvedCount) {
+                resolveNewIds();
+            } else if (handlesById[id] >= 0) {
+                markChanged(handlePositions[handlesById[id]]);
+            }
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Marks the block of a word to be built again in the tables of every desired win rate.
+     *
+     * @param encoded the position of the word, with its difficulty
+     */
+    private void markChanged(int encoded) {
+        int block = segments[encoded & 3].blockOf(encoded >>> 2);
+        for (Level level : levels) {
+            if (level != null) {
+                level.markDirty(encoded & 3, block);
+            }
+        }
+    }
+
+    /**
+     * Spreads the hash of the UTF-8 bytes of a word over the bits of the table.
+     *
+     * @param value the UTF-8 bytes of the raw value of the word
+     * @return the hash
+     */
+    private static int hash(byte[] value) {
+        return spread(BinaryDictionary.hashValue(value));
+    }
+
+    /**
+     * Spreads a hash over the bits of the table.
+     *
+     * @param hash the hash of the UTF-8 bytes of a word
+     * @return the spread hash
+     */
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Fills an alias table (Vose's method): entry i keeps i with probability probabilities[i] / 65536,
+     * and gives aliases[i] otherwise.
+     *
+     * @param weights the weights of the entries
+     * @param count the number of entries
+     * @param probabilities the probabilities of keeping each entry, in 1/65536
+     * @param aliases the alias of each entry
+     * @param small a work array of at least count entries
+     * @param large a work array of at least count entries
+     */
+    private static void fillAliasTable(double[] weights, int count, char[] probabilities, int[] aliases,
+                                       int[] small, int[] large) {
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += weights[i];
+        }
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++) {
+            weights[i] = weights[i] * count / total;
+            if (weights[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[largeCount - 1];
+            probabilities[less] = (char) (weights[less] * 65536);
+            aliases[less] = more;
+            weights[more] -= 1 - weights[less];
+            if (weights[more] < 1) {
+                largeCount--;
+                small[smallCount++] = more;
+            }
+        }
+        // the entries left have a weight of 1, give or take rounding errors
+        while (largeCount > 0) {
+            int entry = large[--largeCount];
+            probabilities[entry] = (char) 65535;
+            aliases[entry] = entry;
+        }
+        while (smallCount > 0) {
+            int entry = small[--smallCount];
+            probabilities[entry] = (char) 65535;
+            aliases[entry] = entry;
+        }
+    }
+
+    /**
+     * The Edit record is an edit of the dictionary noted between two draws.
+     *
+     * @param ordinal the ordinal of the difficulty level of the changed words
+     * @param previousWords the words of the difficulty before the edit
+     * @param words the words of the difficulty after the edit
+     * @param index the position of the first changed word
+     * @param removedCount the number of words removed from the position
+     * @param addedCount the number of words added at the position
+     */
+    private record Edit(int ordinal, List<DictionaryWord> previousWords, List<DictionaryWord> words,
+                        int index, int removedCount, int addedCount) {
+    }
+
+    /**
+     * The Segment class holds the words of one difficulty level as the tables know them, and their blocks.
+     * The blocks follow each other: a block starts where the one before it ends, and removals may leave
+     * a block shorter than BLOCK_SIZE, or empty.
+     */
+    private final class Segment {
+        private final Difficulty difficulty;
+        private List<DictionaryWord> words;
+        private int count;
+        private int[] handles;
+        private int[] statisticIds;
+        private int[] blockStarts;
+        private int[] blockLengths;
+        private int blockCount;
+
+        /**
+         * Constructs a Segment without any word.
+         *
+         * @param difficulty the difficulty level of the words
+         */
+        Segment(Difficulty difficulty) {
+            this.difficulty = difficulty;
+            reset(List.of());
+        }
+
+        /**
+         * Replaces every word of the segment, giving handles to the words and cutting them into full blocks.
+         * The handles of the previous words are released, the hash table must be built again.
+         *
+         * @param newWords the words of the difficulty
+         */
+        void reset(List<DictionaryWord> newWords) {
+            for (int i = 0; i < count; i++) {
+                freeHandle(handles[i]);
+            }
+            words = newWords;
+            count = newWords.size();
+            handles = new int[Math.max(count, 16)];
+            statisticIds = new int[handles.length];
+            Arrays.fill(statisticIds, -1);
+            int ordinal = difficulty.ordinal();
+            for (int i = 0; i < count; i++) {
+                int hash = newWords instanceof WordBucket bucket
+                        ? spread(bucket.valueHash(i))
+                        : hash(newWords.get(i).getRawValue().getBytes(StandardCharsets.UTF_8));
+                handles[i] = newHandle(i << 2 | ordinal, hash);
+            }
+            blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            blockStarts = new int[Math.max(blockCount, 4)];
+            blockLengths = new int[blockStarts.length];
+            for (int block = 0; block < blockCount; block++) {
+                blockStarts[block] = block * BLOCK_SIZE;
+                blockLengths[block] = Math.min(BLOCK_SIZE, count - block * BLOCK_SIZE);
+            }
+        }
+
+        /**
+         * Grows the arrays of the words to hold at least the specified number of words.
+         *
+         * @param capacity the number of words
+         */
+        void ensureCapacity(int capacity) {
+            if (capacity > handles.length) {
+                int grown = Math.max(capacity, handles.length + (handles.length >> 1));
+                handles = Arrays.copyOf(handles, grown);
+                statisticIds = Arrays.copyOf(statisticIds, grown);
+            }
+        }
+
+        /**
+         * Adds an empty block at the end.
+         *
+         * @param start the position of the first word of the block
+         */
+        void addBlock(int start) {
+            if (blockCount == blockStarts.length) {
+                blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+                blockLengths = Arrays.copyOf(blockLengths, blockCount * 2);
+            }
+            blockStarts[blockCount] = start;
+            blockLengths[blockCount] = 0;
+            blockCount++;
+        }
+
+        /**
+         * Finds the block of a word.
+         *
+         * @param index the position of the word
+         * @return the number of the block
+         */
+        int blockOf(int index) {
+            // the first block ending after the word; the ends of the blocks never decrease
+            int low = 0;
+            int high = blockCount - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (blockStarts[middle] + blockLengths[middle] > index) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Checks whether a word has the specified value, without decoding a word of a binary dictionary.
+         *
+         * @param index the position of the word
+         * @param bytes the UTF-8 bytes of the value
+         * @param value the value
+         * @return true if the word has this value, false otherwise
+         */
+        boolean valueEquals(int index, byte[] bytes, String value) {
+            if (words instanceof WordBucket bucket) {
+                return bucket.valueEquals(index, bytes);
+            }
+            return words.get(index).getRawValue().equals(value);
+        }
+    }
+
+    /**
+     * The Level class holds the tables of one desired win rate.
+     */
+    private final class Level {
+        private final double desiredWinRate;
+        /**
+         * For each difficulty and word, the probability of keeping the word in 1/65536 in the high 16 bits,
+         * and the position of its alias in its block in the low 16 bits, read with a single access.
+         */
+        private final int[][] entries;
+        private final double[][] blockWeights;
+        private final BitSet[] dirtyBlocks;
+        private boolean topDirty;
+        private char[] blockProbabilities;
+        private int[] blockAliases;
+        private int[] blockSegments;
+        private int[] blockNumbers;
+
+        /**
+         * Constructs the tables of a desired win rate, every block to be built.
+         *
+         * @param desiredWinRate the desired win rate
+         */
+        Level(double desiredWinRate) {
+            this.desiredWinRate = desiredWinRate;
+            this.entries = new int[segments.length][];
+            this.blockWeights = new double[segments.length][];
+            this.dirtyBlocks = new BitSet[segments.length];
+            for (int ordinal = 0; ordinal < segments.length; ordinal++) {
+                dirtyBlocks[ordinal] = new BitSet();
+                resetSegment(ordinal);
+            }
+        }
+
+        /**
+         * Sizes the tables of a difficulty level to its words, every block of it to be built.
+         *
+         * @param ordinal the ordinal of the difficulty level
+         */
+        void resetSegment(int ordinal) {
+            Segment segment = segments[ordinal];
+            entries[ordinal] = new int[segment.handles.length];
+            blockWeights[ordinal] = new double[segment.blockStarts.length];
+            dirtyBlocks[ordinal].clear();
+            dirtyBlocks[ordinal].set(0, segment.blockCount);
+            topDirty = true;
+        }
+
+        /**
+         * Grows the tables of a difficulty level to the arrays of its words and blocks.
+         *
+         * @param ordinal the ordinal of the difficulty level
+         */
+        void growSegment(int ordinal) {
+            Segment segment = segments[ordinal];
+            if (entries[ordinal].length < segment.handles.length) {
+                entries[ordinal] = Arrays.copyOf(entries[ordinal], segment.handles.length);
+            }
+            if (blockWeights[ordinal].length < segment.blockStarts.length) {
+                blockWeights[ordinal] = Arrays.copyOf(blockWeights[ordinal], segment.blockStarts.length);
+            }
+        }
+
+        /**
+         * Marks a block to be built again.
+         *
+         * @param ordinal the ordinal of the difficulty level
+         * @param block the number of the block in its difficulty
+         */
+        void markDirty(int ordinal, int block) {
+            dirtyBlocks[ordinal].set(block);
+            topDirty = true;
+        }
+
+        /**
+         * Marks every block to be built again.
+         */
+        void markAllDirty() {
+            for (int ordinal = 0; ordinal < segments.length; ordinal++) {
+                dirtyBlocks[ordinal].set(0, segments[ordinal].blockCount);
+            }
+            topDirty = true;
+        }
+
+        /**
+         * Builds the tables of the blocks marked as changed, then the top table if any block was built.
+         */
+        void update() {
+            if (!topDirty) {
+                return;
+            }
+            int totalBlocks = 0;
+            for (Segment segment : segments) {
+                totalBlocks += segment.blockCount;
+            }
+            double[] weights = new double[Math.max(BLOCK_SIZE, totalBlocks)];
+            int[] small = new int[weights.length];
+            int[] large = new int[weights.length];
+            char[] wordProbabilities = new char[BLOCK_SIZE];
+            int[] wordAliases = new int[BLOCK_SIZE];
+            for (int ordinal = 0; ordinal < segments.length; ordinal++) {
+                Segment segment = segments[ordinal];
+                BitSet dirty = dirtyBlocks[ordinal];
+                for (int block = dirty.nextSetBit(0); block >= 0 && block < segment.blockCount; block = dirty.nextSetBit(block + 1)) {
+                    int start = segment.blockStarts[block];
+                    int count = segment.blockLengths[block];
+                    double blockWeight = 0;
+                    for (int i = 0; i < count; i++) {
+                        double winRate = statistics.estimateWinRate(segment.statisticIds[start + i], segment.difficulty);
+                        double distance = (winRate - desiredWinRate) / WIDTH;
+                        weights[i] = Math.exp(-distance * distance) + FLOOR;
+                        blockWeight += weights[i];
+                    }
+                    blockWeights[ordinal][block] = blockWeight;
+                    if (count > 0) {
+                        fillAliasTable(weights, count, wordProbabilities, wordAliases, small, large);
+                        for (int i = 0; i < count; i++) {
+                            entries[ordinal][start + i] = wordProbabilities[i] << 16 | wordAliases[i];
+                        }
+                    }
+                }
+                dirty.clear();
+            }
+
+            blockProbabilities = new char[totalBlocks];
+            blockAliases = new int[totalBlocks];
+            blockSegments = new int[totalBlocks];
+            blockNumbers = new int[totalBlocks];
+            int position = 0;
+            for (int ordinal = 0; ordinal < segments.length; ordinal++) {
+                for (int block = 0; block < segments[ordinal].blockCount; block++) {
+                    weights[position] = blockWeights[ordinal][block];
+                    blockSegments[position] = ordinal;
+                    blockNumbers[position] = block;
+                    position++;
+                }
+            }
+            fillAliasTable(weights, totalBlocks, blockProbabilities, blockAliases, small, large);
+            topDirty = false;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The WordStatistics class keeps the results of the rounds played with each word: games, wins and incorrect guesses.
+ * The words get an id in an open-addressing hash table of their values, and their counts are stored
+ * in primitive arrays indexed by id, so millions of words cost a few bytes each.
+ * <p>
+ * The statistics are kept in a file next to the dictionary, "words.stats" for "words.txt". The file is a log:
+ * each finished round is appended as one record on a background thread, and the counts of all records of a word
+ * are added up when the file is loaded. Once the log holds many more records than words, it is compacted
+ * in the background into one record per word.
+ * <p>
+ * Layout (big-endian): int magic "HGWS", int version, then records: short length of the word,
+ * the word in UTF-8, int games, int wins, int incorrect guesses. A record cut by a crash is ignored.
+ */
+public class WordStatistics {
+    public static final int MAGIC = 0x48475753;
+    public static final int VERSION = 1;
+
+    /**
+     * The maximum length of a word in UTF-8 bytes, the largest length a record can hold.
+     */
+    public static final int MAX_WORD_LENGTH = 0xFFFF;
+
+    /**
+     * The win rate assumed for a word of each difficulty level before any round was played with it.
+     */
+    private static final double[] PRIOR_WIN_RATES = {0.8, 0.6, 0.4};
+
+    /**
+     * The weight of the assumed win rate, in rounds: the more rounds a word was played, the less it counts.
+     */
+    private static final double PRIOR_GAMES = 4;
+
+    /**
+     * The number of records above the number of words from which the log is compacted.
+     */
+    private static final int COMPACTION_SLACK = 4096;
+
+    private static WordStatistics shared;
+
+    private final File file;
+    private final ExecutorService writer;
+    private final List<WordSampler> samplers;
+    private String[] keys;
+    private int[] games;
+    private int[] wins;
+    private int[] incorrectGuesses;
+    private int[] table;
+    private int size;
+    private int recordCount;
+
+    /**
+     * Constructs a WordStatistics kept in the specified file, loading the statistics already recorded.
+     *
+     * @param file the statistics file, or null to keep the statistics in memory only
+     */
+    public WordStatistics(File file) {
+        this.file = file;
+        this.samplers = new ArrayList<>();
+        this.keys = new String[16];
+        this.games = new int[16];
+        this.wins = new int[16];
+        this.incorrectGuesses = new int[16];
+        this.table = new int[64];
+        Arrays.fill(table, -1);
+        if (file == null) {
+            writer = null;
+            return;
+        }
+        load(file);
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "statistics-flush"));
+    }
+
+    /**
+     * Gets the statistics of the words of the application, kept next to words.txt.
+     *
+     * @return the shared statistics
+     */
+    public static synchronized WordStatistics getShared() {
+        if (shared == null) {
+            shared = new WordStatistics(new File("words.stats"));
+        }
+        return shared;
+    }
+
+    /**
+     * Records the result of a finished round.
+     *
+     * @param word the word of the round
+     * @param won true if the word was found
+     * @param incorrectGuessCount the number of incorrect guesses of the round
+     * @throws IllegalArgumentException if the word is longer than MAX_WORD_LENGTH bytes in UTF-8
+     */
+    public void recordRound(DictionaryWord word, boolean won, int incorrectGuessCount) {
+        if (word.getRawValue().getBytes(StandardCharsets.UTF_8).length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word too long: " + word.getRawValue().length() + " characters");
+        }
+        List<WordSampler> listeners;
+        int id;
+        synchronized (this) {
+            id = add(word.getRawValue(), 1, won ? 1 : 0, incorrectGuessCount);
+            listeners = new ArrayList<>(samplers);
+            if (writer != null) {
+                String key = word.getRawValue();
+                writer.execute(() -> append(key, won ? 1 : 0, incorrectGuessCount));
+            }
+        }
+        for (WordSampler sampler : listeners) {
+            sampler.statisticsChanged(id);
+        }
+    }
+
+    /**
+     * Gets the id of the statistics of a word.
+     *
+     * @param value the raw value of the word
+     * @return the id, or -1 if no round was recorded with the word
+     */
+    public synchronized int getId(String value) {
+        return find(value);
+    }
+
+    /**
+     * Gets the number of rounds played with a word.
+     *
+     * @param value the raw value of the word
+     * @return the number of rounds
+     */
+    public synchronized int getGames(String value) {
+        int id = find(value);
+        return id < 0 ? 0 : games[id];
+    }
+
+    /**
+     * Gets the number of rounds won with a word.
+     *
+     * @param value the raw value of the word
+     * @return the number of rounds won
+     */
+    public synchronized int getWins(String value) {
+        int id = find(value);
+        return id < 0 ? 0 : wins[id];
+    }
+
+    /**
+     * Gets the total number of incorrect guesses of the rounds played with a word.
+     *
+     * @param value the raw value of the word
+     * @return the number of incorrect guesses
+     */
+    public synchronized int getIncorrectGuesses(String value) {
+        int id = find(value);
+        return id < 0 ? 0 : incorrectGuesses[id];
+    }
+
+    /**
+     * Gets the number of words with statistics, their ids going from 0 to this number excluded.
+     *
+     * @return the number of words
+     */
+    synchronized int getWordCount() {
+        return size;
+    }
+
+    /**
+     * Gets the raw value of the word with a statistics id.
+     *
+     * @param id the statistics id
+     * @return the raw value of the word
+     */
+    synchronized String getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Estimates the chance of winning a round with a word: its win rate, pulled towards the usual win rate
+     * of its difficulty while it has been played only a few times.
+     *
+     * @param word the word
+     * @return the estimated win rate, between 0 and 1
+     */
+    public synchronized double estimateWinRate(DictionaryWord word) {
+        return estimateWinRate(find(word.getRawValue()), word.getDifficulty());
+    }
+
+    /**
+     * Estimates the chance of winning a round with a word, from its statistics id.
+     *
+     * @param id the statistics id of the word, or -1 if it has none
+     * @param difficulty the difficulty level of the word
+     * @return the estimated win rate, between 0 and 1
+     */
+    synchronized double estimateWinRate(int id, Difficulty difficulty) {
+        double prior = PRIOR_WIN_RATES[difficulty.ordinal()];
+        if (id < 0) {
+            return prior;
+        }
+        return (wins[id] + prior * PRIOR_GAMES) / (games[id] + PRIOR_GAMES);
+    }
+
+    /**
+     * Gets the sampler of the words of a dictionary, drawing words close to a desired win rate.
+     * The sampler is shared by every player of the dictionary, and follows the recorded rounds.
+     *
+     * @param dictionary the dictionary the words are drawn from
+     * @return the sampler
+     */
+    public synchronized WordSampler getSampler(Dictionary dictionary) {
+        for (WordSampler sampler : samplers) {
+            if (sampler.getDictionary() == dictionary) {
+                return sampler;
+            }
+        }
+        WordSampler sampler = new WordSampler(dictionary, this);
+        samplers.add(sampler);
+        return sampler;
+    }
+
+    /**
+     * Waits until the recorded rounds have been written to the file.
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(() -> {
+            }).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds counts to the statistics of a word, giving it an id if it has none.
+     *
+     * @param key the raw value of the word
+     * @param gameCount the number of games to add
+     * @param winCount the number of wins to add
+     * @param incorrectGuessCount the number of incorrect guesses to add
+     * @return the id of the word
+     */
+    private int add(String key, int gameCount, int winCount, int incorrectGuessCount) {
+        int id = find(key);
+        if (id < 0) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                games = Arrays.copyOf(games, capacity);
+                wins = Arrays.copyOf(wins, capacity);
+                incorrectGuesses = Arrays.copyOf(incorrectGuesses, capacity);
+            }
+            if ((size + 1) * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            id = size++;
+            keys[id] = key;
+            insert(id);
+        }
+        games[id] += gameCount;
+        wins[id] += winCount;
+        incorrectGuesses[id] += incorrectGuessCount;
+        return id;
+    }
+
+    /**
+     * Finds the id of a word in the hash table, with linear probing.
+     *
+     * @param key the raw value of the word
+     * @return the id, or -1 if the word has none
+     */
+    private int find(String key) {
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask; table[slot] >= 0; slot = (slot + 1) & mask) {
+            if (keys[table[slot]].equals(key)) {
+                return table[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts an id in the hash table.
+     *
+     * @param id the id of the word
+     */
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int slot = hash(keys[id]) & mask;
+        while (table[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id;
+    }
+
+    /**
+     * Rebuilds the hash table with another capacity.
+     *
+     * @param capacity the number of slots, a power of two
+     */
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, -1);
+        for (int id = 0; id < size; id++) {
+            insert(id);
+        }
+    }
+
+    /**
+     * Spreads the hash code of a word over the bits of the table.
+     *
+     * @param key the raw value of the word
+     * @return the hash
+     */
+    private static int hash(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Loads the records of a statistics file, adding up the counts of each word.
+     *
+     * @param file the statistics file
+     */
+    private void load(File file) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                System.err.println("Ignoring " + file + ": not a statistics file");
+                return;
+            }
+            while (true) {
+                byte[] key = new byte[input.readUnsignedShort()];
+                input.readFully(key);
+                int gameCount = input.readInt();
+                int winCount = input.readInt();
+                int incorrectGuessCount = input.readInt();
+                add(new String(key, StandardCharsets.UTF_8), gameCount, winCount, incorrectGuessCount);
+                recordCount++;
+            }
+        } catch (FileNotFoundException | EOFException e) {
+            // no statistics yet, or the last record was cut by a crash
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Appends the record of a round to the file, on the writer thread.
+     *
+     * @param key the raw value of the word
+     * @param winCount 1 if the round was won, 0 otherwise
+     * @param incorrectGuessCount the number of incorrect guesses of the round
+     */
+    private void append(String key, int winCount, int incorrectGuessCount) {
+        try {
+            boolean created = !file.isFile();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+                if (created) {
+                    output.writeInt(MAGIC);
+                    output.writeInt(VERSION);
+                }
+                writeRecord(output, key, 1, winCount, incorrectGuessCount);
+            }
+            compactIfNeeded();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rewrites the file with one record per word once it holds many more records than words, on the writer thread.
+     * The records are read back from the file rather than taken from memory, since the rounds recorded
+     * in memory may not be written yet. The new file is written next to the old one, then moved over it.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void compactIfNeeded() throws IOException {
+        synchronized (this) {
+            recordCount++;
+            if (recordCount < size * 2 + COMPACTION_SLACK) {
+                return;
+            }
+        }
+        WordStatistics written = new WordStatistics(null);
+        written.load(file);
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            for (int id = 0; id < written.size; id++) {
+                writeRecord(output, written.keys[id], written.games[id], written.wins[id], written.incorrectGuesses[id]);
+            }
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            recordCount = written.size;
+        }
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param output the output stream
+     * @param key the raw value of the word
+     * @param gameCount the number of games
+     * @param winCount the number of wins
+     * @param incorrectGuessCount the number of incorrect guesses
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeRecord(DataOutputStream output, String key, int gameCount, int winCount, int incorrectGuessCount) throws IOException {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_WORD_LENGTH) {
+            throw new IOException("Word too long for a record: " + bytes.length + " bytes");
+        }
+        output.writeShort(bytes.length);
+        output.write(bytes);
+        output.writeInt(gameCount);
+        output.writeInt(winCount);
+        output.writeInt(incorrectGuessCount);
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * The DictionaryChangeLogTest class checks that the change log keeps every edit when two snapshots are written
+ * one after the other, the second one taken before the first one discarded the beginning of the log.
+ * <p>
+ * Usage: java DictionaryChangeLogTest, which fails with an AssertionError on the first wrong result.
+ */
+public final class DictionaryChangeLogTest {
+    private DictionaryChangeLogTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args ignored
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        checkQueuedSnapshots();
+        checkCompactionThenSave();
+        System.out.println("DictionaryChangeLogTest passed");
+    }
+
+    /**
+     * Logs edits between two snapshot positions, then writes the snapshots in order as the dictionary writer does.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    private static void checkQueuedSnapshots() throws IOException {
+        File directory = Files.createTempDirectory("change-log-test").toFile();
+        File dictionaryFile = new File(directory, "words.txt");
+        DictionaryChangeLog log = new DictionaryChangeLog(new File(directory, "edits.log"));
+        log.logAddition(new DictionaryWord("aa", Difficulty.Easy));
+        log.logAddition(new DictionaryWord("bb", Difficulty.Easy));
+        long firstPosition = log.position();
+        log.logAddition(new DictionaryWord("cc", Difficulty.Easy));
+        long secondPosition = log.position();
+        log.logAddition(new DictionaryWord("dd", Difficulty.Easy));
+
+        Files.writeString(dictionaryFile.toPath(), "Easy|aa|bb\nMedium\nHard\n", StandardCharsets.UTF_8);
+        log.logCheckpoint(firstPosition, dictionaryFile);
+        log.discardBefore(firstPosition);
+        log.logAddition(new DictionaryWord("ee", Difficulty.Easy));
+
+        // the second snapshot is interrupted after its checkpoint: the replay must skip exactly the words it holds
+        Files.writeString(dictionaryFile.toPath(), "Easy|aa|bb|cc\nMedium\nHard\n", StandardCharsets.UTF_8);
+        log.logCheckpoint(secondPosition, dictionaryFile);
+        Dictionary dictionary = new Dictionary(dictionaryFile);
+        log.replay(dictionary, dictionaryFile);
+        checkWords(dictionary, "aa", "bb", "cc", "dd", "ee");
+
+        log.discardBefore(secondPosition);
+        dictionary = new Dictionary(dictionaryFile);
+        log.replay(dictionary, dictionaryFile);
+        checkWords(dictionary, "aa", "bb", "cc", "dd", "ee");
+    }
+
+    /**
+     * Fills the log up to a background compaction, then saves the dictionary while the compaction may still be queued,
+     * and checks that a reload finds every word.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    private static void checkCompactionThenSave() throws IOException {
+        File directory = Files.createTempDirectory("change-log-test").toFile();
+        File dictionaryFile = new File(directory, "words.txt");
+        Files.writeString(dictionaryFile.toPath(), "Easy|aa\nMedium\nHard\n", StandardCharsets.UTF_8);
+        File logFile = DictionaryChangeLog.getLogFile(dictionaryFile);
+        Dictionary dictionary = new Dictionary(dictionaryFile);
+        int count = 0;
+        while (logFile.length() < Dictionary.COMPACTION_THRESHOLD) {
+            dictionary.addLoggedWord(new DictionaryWord("word" + count++, Difficulty.Medium));
+        }
+        for (int i = 0; i < 1000; i++) {
+            dictionary.addLoggedWord(new DictionaryWord("word" + count++, Difficulty.Medium));
+        }
+        dictionary.saveDictionary();
+        for (int i = 0; i < 1000; i++) {
+            dictionary.addLoggedWord(new DictionaryWord("word" + count++, Difficulty.Hard));
+        }
+        dictionary.saveDictionary();
+
+        Dictionary reloaded = new Dictionary(dictionaryFile);
+        for (Difficulty difficulty : Difficulty.values()) {
+            check(values(reloaded, difficulty).equals(values(dictionary, difficulty)), "reloaded " + difficulty + " words differ");
+        }
+    }
+
+    /**
+     * Checks the values of the easy words of a dictionary.
+     *
+     * @param dictionary the dictionary
+     * @param expected the values expected, in order
+     */
+    private static void checkWords(Dictionary dictionary, String... expected) {
+        List<String> found = values(dictionary, Difficulty.Easy);
+        check(found.equals(List.of(expected)), "expected " + List.of(expected) + ", found " + found);
+    }
+
+    /**
+     * Gets the values of the words of a difficulty level.
+     *
+     * @param dictionary the dictionary
+     * @param difficulty the difficulty level
+     * @return the raw values of the words, in order
+     */
+    private static List<String> values(Dictionary dictionary, Difficulty difficulty) {
+        return dictionary.getWordsByDifficulty(difficulty).stream().map(DictionaryWord::getRawValue).toList();
+    }
+
+    /**
+     * Fails when a condition does not hold.
+     *
+     * @param condition the checked condition
+     * @param message the message of the failure
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
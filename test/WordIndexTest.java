@@ -0,0 +1,132 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The WordIndexTest class checks the searches of the WordIndex, with words made of letters, accented letters and digits.
+ * <p>
+ * Usage: java WordIndexTest, which fails with an AssertionError on the first wrong result.
+ */
+public final class WordIndexTest {
+    private WordIndexTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args ignored
+     * @throws IOException if the dictionary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        File directory = Files.createTempDirectory("word-index-test").toFile();
+        File file = new File(directory, "words.txt");
+        Files.writeString(file.toPath(), "Easy|\u00e9t\u00e9|\u00e8re|\u00e9cole|\u00eatre|\u00e9l\u00e8ve|1b|2a|3c|0z|arbre|abri|z\u00e8bre\n", StandardCharsets.UTF_8);
+        Dictionary dictionary = new Dictionary(file);
+        WordIndex index = dictionary.getIndex();
+
+        checkPrefixSearch(index, "\u00c9", "\u00c9COLE", "\u00c9L\u00c8VE", "\u00c9T\u00c9");
+        checkPrefixSearch(index, "\u00c9T", "\u00c9T\u00c9");
+        checkPrefixSearch(index, "\u00c8R", "\u00c8RE");
+        checkPrefixSearch(index, "\u00c9L", "\u00c9L\u00c8VE");
+        checkPrefixSearch(index, "\u00ca", "\u00caTRE");
+        checkPrefixSearch(index, "0", "0Z");
+        checkPrefixSearch(index, "1", "1B");
+        checkPrefixSearch(index, "2", "2A");
+        checkPrefixSearch(index, "A", "ABRI", "ARBRE");
+        checkPrefixSearch(index, "Z", "Z\u00c8BRE");
+        checkRecentWords(dictionary);
+        check(index.contains("\u00c9COLE") && index.contains("3c") && !index.contains("ECOLE"), "contains");
+
+        List<DictionaryWord> before = index.search(Difficulty.Easy, "\u00c9", 0);
+        DictionaryWord added = new DictionaryWord("\u00e9a", Difficulty.Easy);
+        check(dictionary.addWord(added), "add \u00e9a");
+        check(!dictionary.addWord(new DictionaryWord("\u00c9A", Difficulty.Hard)), "duplicate \u00c9A added");
+        check(!dictionary.addWord(new DictionaryWord("ARBRE", Difficulty.Medium)), "duplicate ARBRE added");
+        check(dictionary.addWords(List.of(new DictionaryWord("abri", Difficulty.Hard), new DictionaryWord("ab", Difficulty.Hard),
+                new DictionaryWord("AB", Difficulty.Hard))) == 1, "duplicates added in bulk");
+        index = dictionary.getIndex();
+        checkPrefixSearch(index, "\u00c9", "\u00c9A", "\u00c9COLE", "\u00c9L\u00c8VE", "\u00c9T\u00c9");
+        dictionary.removeWord(added);
+        checkPrefixSearch(index, "\u00c9", "\u00c9COLE", "\u00c9L\u00c8VE", "\u00c9T\u00c9");
+        check(before.size() == 3 && before.get(0).getRawValue().equals("\u00e9cole"), "search result changed by later edits");
+        System.out.println("WordIndexTest passed");
+    }
+
+    /**
+     * Checks the searches over words added one by one, kept apart from the sorted words until they are merged,
+     * against a scan of every word, and the removal of some of them.
+     *
+     * @param dictionary the dictionary, whose easy words start with other letters than Q
+     */
+    private static void checkRecentWords(Dictionary dictionary) {
+        List<DictionaryWord> added = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            DictionaryWord word = new DictionaryWord("q" + Integer.toString(i * 37 % 300, 5), Difficulty.Easy);
+            check(dictionary.addWord(word), "add " + word.getRawValue());
+            added.add(word);
+            if (i % 7 == 0) {
+                checkPrefixSearch(dictionary.getIndex(), "Q1", expectedPrefixMatches(dictionary, "Q1"));
+            }
+        }
+        for (int i = 0; i < added.size(); i += 3) {
+            dictionary.removeWord(added.get(i));
+        }
+        checkPrefixSearch(dictionary.getIndex(), "Q", expectedPrefixMatches(dictionary, "Q"));
+        checkPrefixSearch(dictionary.getIndex(), "Q2", expectedPrefixMatches(dictionary, "Q2"));
+        for (int i = 0; i < added.size(); i++) {
+            check(dictionary.containsWord(added.get(i).getRawValue()) == (i % 3 != 0), "contains " + added.get(i).getRawValue());
+        }
+        for (DictionaryWord word : added) {
+            dictionary.removeWord(word);
+        }
+    }
+
+    /**
+     * Lists the upper-case values of the easy words starting with a prefix, by scanning every word.
+     *
+     * @param dictionary the dictionary
+     * @param prefix the upper-case prefix
+     * @return the values, in alphabetical order
+     */
+    private static String[] expectedPrefixMatches(Dictionary dictionary, String prefix) {
+        List<String> expected = new ArrayList<>();
+        for (DictionaryWord word : dictionary.getWordsByDifficulty(Difficulty.Easy)) {
+            String key = word.getRawValue().toUpperCase();
+            if (key.startsWith(prefix)) {
+                expected.add(key);
+            }
+        }
+        expected.sort(null);
+        return expected.toArray(new String[0]);
+    }
+
+    /**
+     * Checks the words of a search starting with the query.
+     *
+     * @param index the index
+     * @param query the searched text
+     * @param expected the upper-case values of the words expected, in order
+     */
+    private static void checkPrefixSearch(WordIndex index, String query, String... expected) {
+        List<String> found = new ArrayList<>();
+        for (DictionaryWord word : index.search(Difficulty.Easy, query, 0)) {
+            found.add(word.getRawValue().toUpperCase());
+        }
+        check(found.equals(List.of(expected)), "search " + query + ": expected " + List.of(expected) + ", found " + found);
+    }
+
+    /**
+     * Fails when a condition does not hold.
+     *
+     * @param condition the checked condition
+     * @param message the message of the failure
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
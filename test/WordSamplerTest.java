@@ -0,0 +1,178 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The WordSamplerTest class checks the WordSampler while the dictionary is edited between the draws:
+ * every drawn word must be in the dictionary, and the draws must follow the weights of the words.
+ * Both a text and a binary dictionary are checked, the words of the binary one being hashed without being decoded.
+ * <p>
+ * Usage: java WordSamplerTest, which fails with an AssertionError on the first wrong result.
+ */
+public final class WordSamplerTest {
+    /**
+     * The width and the floor of the weights of the words, as in WordSampler.
+     */
+    private static final double WIDTH = 0.15;
+    private static final double FLOOR = 1e-3;
+
+    private static final int STEPS = 20_000;
+    private static final int DRAWS = 500_000;
+
+    private WordSamplerTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args ignored
+     * @throws IOException if a dictionary file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        File directory = Files.createTempDirectory("word-sampler-test").toFile();
+        File textFile = new File(directory, "words.txt");
+        StringBuilder content = new StringBuilder();
+        for (Difficulty difficulty : Difficulty.values()) {
+            content.append(difficulty);
+            for (int i = 0; i < 1000; i++) {
+                content.append('|').append(difficulty.name().toLowerCase()).append(i);
+            }
+            content.append('\n');
+        }
+        Files.writeString(textFile.toPath(), content.toString(), StandardCharsets.UTF_8);
+        checkEdits(new Dictionary(textFile), new Random(1));
+
+        File binaryFile = new File(directory, "words.bin");
+        BinaryDictionary.write(new Dictionary(textFile), binaryFile);
+        checkEdits(new Dictionary(binaryFile), new Random(2));
+        System.out.println("WordSamplerTest passed");
+    }
+
+    /**
+     * Edits a dictionary at random between draws, checking each drawn word, and the distribution of the draws
+     * from time to time.
+     *
+     * @param dictionary the dictionary
+     * @param random the random generator of the edits and the draws
+     */
+    private static void checkEdits(Dictionary dictionary, Random random) {
+        WordStatistics statistics = new WordStatistics(null);
+        WordSampler sampler = statistics.getSampler(dictionary);
+        int added = 0;
+        for (int step = 0; step < STEPS; step++) {
+            Difficulty difficulty = Difficulty.values()[random.nextInt(Difficulty.values().length)];
+            List<DictionaryWord> words = dictionary.getWordsByDifficulty(difficulty);
+            int edit = random.nextInt(100);
+            if (edit < 35) {
+                DictionaryWord word = new DictionaryWord("added" + added++, difficulty);
+                dictionary.addWord(word);
+                if (random.nextInt(4) == 0) {
+                    recordRounds(statistics, word, random);
+                }
+            } else if (edit < 70 && !words.isEmpty()) {
+                dictionary.removeWord(words.get(random.nextInt(words.size())));
+            } else if (edit < 80 && !words.isEmpty()) {
+                recordRounds(statistics, words.get(random.nextInt(words.size())), random);
+            } else if (edit == 80) {
+                List<DictionaryWord> batch = new ArrayList<>();
+                for (int i = random.nextInt(100); i > 0; i--) {
+                    batch.add(new DictionaryWord("added" + added++, Difficulty.values()[random.nextInt(Difficulty.values().length)]));
+                }
+                dictionary.addWords(batch);
+            } else if (edit == 81 && random.nextInt(10) == 0) {
+                Map<Difficulty, List<DictionaryWord>> shuffled = new EnumMap<>(Difficulty.class);
+                for (Difficulty other : Difficulty.values()) {
+                    shuffled.put(other, new ArrayList<>(dictionary.getWordsByDifficulty(other)));
+                }
+                Collections.shuffle(shuffled.get(difficulty), random);
+                dictionary.replaceWords(shuffled);
+            }
+            if (random.nextInt(4) == 0) {
+                DictionaryWord drawn = sampler.sample(random.nextInt(WordSampler.LEVELS) / (WordSampler.LEVELS - 1.0), random);
+                check(dictionary.getWordsByDifficulty(drawn.getDifficulty()).contains(drawn),
+                        "step " + step + ": drew " + drawn.getRawValue() + ", which is not in the dictionary");
+            }
+            if (step % 10_000 == 9999) {
+                checkDistribution(dictionary, statistics, sampler, random.nextInt(WordSampler.LEVELS) / (WordSampler.LEVELS - 1.0), random);
+            }
+        }
+    }
+
+    /**
+     * Records a few rounds with a word, mostly won or mostly lost, to move its estimated win rate.
+     *
+     * @param statistics the statistics of the words
+     * @param word the word of the rounds
+     * @param random the random generator
+     */
+    private static void recordRounds(WordStatistics statistics, DictionaryWord word, Random random) {
+        int winPercent = random.nextBoolean() ? 90 : 10;
+        for (int i = 0; i < 10; i++) {
+            statistics.recordRound(word, random.nextInt(100) < winPercent, 3);
+        }
+    }
+
+    /**
+     * Draws many words and compares their frequencies to their weights. The words are grouped by weight
+     * and by value, so each group is drawn often enough for its frequency to be compared.
+     *
+     * @param dictionary the dictionary
+     * @param statistics the statistics of the words
+     * @param sampler the sampler
+     * @param desiredWinRate the desired win rate
+     * @param random the random generator
+     */
+    private static void checkDistribution(Dictionary dictionary, WordStatistics statistics, WordSampler sampler,
+                                          double desiredWinRate, Random random) {
+        Map<String, Integer> groups = new HashMap<>();
+        double[] expected = new double[64];
+        double totalWeight = 0;
+        for (Difficulty difficulty : Difficulty.values()) {
+            for (DictionaryWord word : dictionary.getWordsByDifficulty(difficulty)) {
+                double distance = (statistics.estimateWinRate(word) - desiredWinRate) / WIDTH;
+                double weight = Math.exp(-distance * distance) + FLOOR;
+                int group = Math.min(7, (int) (weight * 8)) * 8 + Math.floorMod(word.getRawValue().hashCode(), 8);
+                groups.put(word.getRawValue(), group);
+                expected[group] += weight;
+                totalWeight += weight;
+            }
+        }
+        double[] drawn = new double[64];
+        Set<String> drawnValues = new HashSet<>();
+        for (int i = 0; i < DRAWS; i++) {
+            DictionaryWord word = sampler.sample(desiredWinRate, random);
+            Integer group = groups.get(word.getRawValue());
+            check(group != null, "drew " + word.getRawValue() + ", which is not in the dictionary");
+            drawn[group]++;
+            drawnValues.add(word.getRawValue());
+        }
+        double distance = 0;
+        for (int group = 0; group < expected.length; group++) {
+            distance += Math.abs(expected[group] / totalWeight - drawn[group] / DRAWS);
+        }
+        check(distance / 2 < 0.01, "draws at " + desiredWinRate + " are " + distance / 2 + " away from the weights");
+        check(drawnValues.size() > groups.size() / 2, "only " + drawnValues.size() + " of " + groups.size() + " words drawn");
+    }
+
+    /**
+     * Fails when a condition does not hold.
+     *
+     * @param condition the checked condition
+     * @param message the message of the failure
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}